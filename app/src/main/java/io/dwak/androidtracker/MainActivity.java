@@ -12,8 +12,9 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import io.dwak.androidtracker.viewmodel.FavoriteFoodViewModel;
-import io.dwak.reactor.Reactor;
 import io.dwak.reactor.ReactorComputation;
+import io.dwak.reactor.ReactorScope;
+import io.dwak.reactor.android.ReactorLifecycle;
 import io.dwak.reactor.interfaces.ReactorComputationFunction;
 
 
@@ -30,6 +31,8 @@ public class MainActivity extends ActionBarActivity {
         final EditText editText = (EditText) findViewById(R.id.edit_text);
         final TextView editTextDisplay = (TextView) findViewById(R.id.edit_text_display);
         final FavoriteFoodViewModel viewModel = new FavoriteFoodViewModel("PIZZA", 100);
+        final ReactorScope scope = new ReactorScope();
+        ReactorLifecycle.bindToActivity(this, scope);
 
         editText.addTextChangedListener(new TextWatcher() {
             @Override
@@ -63,20 +66,20 @@ public class MainActivity extends ActionBarActivity {
             }
         });
 
-        Reactor.getInstance().autoRun(new ReactorComputationFunction() {
+        scope.autoRun(new ReactorComputationFunction() {
             @Override
             public void react(ReactorComputation reactorComputation) {
                 editTextDisplay.setText(viewModel.getEditTextValue());
             }
         });
-        Reactor.getInstance().autoRun(new ReactorComputationFunction() {
+        scope.autoRun(new ReactorComputationFunction() {
             @Override
             public void react(ReactorComputation reactorComputation) {
                 textView.setText(viewModel.getFavoriteFood());
             }
         });
 
-        final ReactorComputation favoriteFoodPercentageComputation = Reactor.getInstance().autoRun(new ReactorComputationFunction() {
+        final ReactorComputation favoriteFoodPercentageComputation = scope.autoRun(new ReactorComputationFunction() {
             @Override
             public void react(ReactorComputation reactorComputation) {
                 seekBar.setProgress(viewModel.getFavoritePercentage());
@@ -88,7 +91,7 @@ public class MainActivity extends ActionBarActivity {
             }
         });
 
-        Reactor.getInstance().autoRun(new ReactorComputationFunction() {
+        scope.autoRun(new ReactorComputationFunction() {
             @Override
             public void react(ReactorComputation reactorComputation) {
                 viewModel.setFavoriteFood(viewModel.isPizza() ? FavoriteFoodViewModel.PIZZA : FavoriteFoodViewModel.MANGOES);
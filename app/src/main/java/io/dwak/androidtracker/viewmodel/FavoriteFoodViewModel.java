@@ -1,6 +1,8 @@
 package io.dwak.androidtracker.viewmodel;
 
+import io.dwak.reactor.ReactorBooleanVar;
 import io.dwak.reactor.ReactorDependency;
+import io.dwak.reactor.ReactorIntVar;
 
 /**
  * Created by vishnu on 12/23/14.
@@ -8,30 +10,26 @@ import io.dwak.reactor.ReactorDependency;
 public class FavoriteFoodViewModel {
     public static String PIZZA = "PIZZA";
     public static String MANGOES = "MANGOES";
-    private boolean mIsPizza;
+    private ReactorBooleanVar mIsPizza;
     private String mFavoriteFood;
-    private int mFavoritePercentage;
+    private ReactorIntVar mFavoritePercentage;
     private String mEditTextValue;
-    private ReactorDependency mIsPizzaDep = new ReactorDependency();
     private ReactorDependency mFavoriteFoodDep = new ReactorDependency();
-    private ReactorDependency mFavoritePercentageDep = new ReactorDependency();
     private ReactorDependency mEditTextValueDep = new ReactorDependency();
 
     public FavoriteFoodViewModel(String favoriteFood, int favoritePercentage) {
-        mIsPizza = PIZZA.equals(favoriteFood);
+        mIsPizza = new ReactorBooleanVar(PIZZA.equals(favoriteFood));
         mFavoriteFood = favoriteFood;
-        mFavoritePercentage = favoritePercentage;
+        mFavoritePercentage = new ReactorIntVar(favoritePercentage);
         mEditTextValue = "";
     }
 
     public boolean isPizza() {
-        mIsPizzaDep.depend();
-        return mIsPizza;
+        return mIsPizza.getValue();
     }
 
     public void setIsPizza(boolean isPizza) {
-        this.mIsPizza = isPizza;
-        mIsPizzaDep.changed();
+        mIsPizza.setValue(isPizza);
     }
 
     public String getFavoriteFood() {
@@ -45,13 +43,11 @@ public class FavoriteFoodViewModel {
     }
 
     public int getFavoritePercentage() {
-        mFavoritePercentageDep.depend();
-        return mFavoritePercentage;
+        return mFavoritePercentage.getValue();
     }
 
     public void setFavoritePercentage(int favoritePercentage) {
-        this.mFavoritePercentage = favoritePercentage;
-        mFavoritePercentageDep.changed();
+        mFavoritePercentage.setValue(favoritePercentage);
     }
 
     public String getEditTextValue() {
@@ -0,0 +1,66 @@
+package io.dwak.reactor.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.dwak.reactor.ReactorComputation;
+import io.dwak.reactor.ReactorIntVar;
+import io.dwak.reactor.ReactorScope;
+import io.dwak.reactor.interfaces.ReactorComputationFunction;
+
+/**
+ * Creating and stopping computations, as screens bind and unbind: measures edge allocation
+ * and pooling, and stopping a whole {@link ReactorScope}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChurnBenchmark extends ReactorBenchmarkState {
+    @Param({"100"})
+    public int scopeSize;
+
+    private ReactorIntVar[] mVars;
+    private ReactorComputationFunction mFunction;
+    private ReactorScope mScope;
+    private int mSum;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        setUpReactor();
+        mVars = new ReactorIntVar[] {new ReactorIntVar(1), new ReactorIntVar(2), new ReactorIntVar(3)};
+        mFunction = new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                mSum += mVars[0].getValue() + mVars[1].getValue() + mVars[2].getValue();
+            }
+        };
+        mScope = new ReactorScope();
+    }
+
+    @Benchmark
+    public int autoRunAndStop() {
+        mReactor.autoRun(mFunction).stop();
+        return mSum;
+    }
+
+    @Benchmark
+    public int scopeAutoRunsAndStop() {
+        for (int i = 0; i < scopeSize; i++) {
+            mScope.autoRun(mFunction);
+        }
+        mScope.stop();
+        return mSum;
+    }
+}
@@ -0,0 +1,61 @@
+package io.dwak.reactor.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.dwak.reactor.ReactorComputation;
+import io.dwak.reactor.ReactorIntVar;
+import io.dwak.reactor.interfaces.ReactorComputationFunction;
+
+/**
+ * A chain of computations, each copying the previous var into the next one: measures how a
+ * single write propagates hop by hop within one flush
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeepChainBenchmark extends ReactorBenchmarkState {
+    @Param({"10000"})
+    public int hops;
+
+    private ReactorIntVar[] mVars;
+    private int mNext;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        setUpReactor();
+        mVars = new ReactorIntVar[hops + 1];
+        for (int i = 0; i <= hops; i++) {
+            mVars[i] = new ReactorIntVar(0);
+        }
+        for (int i = 0; i < hops; i++) {
+            final ReactorIntVar from = mVars[i];
+            final ReactorIntVar to = mVars[i + 1];
+            mReactor.autoRun(new ReactorComputationFunction() {
+                @Override
+                public void react(ReactorComputation reactorComputation) {
+                    to.setValue(from.getValue());
+                }
+            });
+        }
+    }
+
+    @Benchmark
+    public int writeAndFlush() {
+        mVars[0].setValue(++mNext);
+        mReactor.flush();
+        return mVars[hops].getRawValue();
+    }
+}
@@ -0,0 +1,73 @@
+package io.dwak.reactor.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.dwak.reactor.ReactorComputation;
+import io.dwak.reactor.ReactorComputed;
+import io.dwak.reactor.ReactorIntVar;
+import io.dwak.reactor.interfaces.ReactorComputationFunction;
+import io.dwak.reactor.interfaces.ReactorComputedFunction;
+
+/**
+ * Diamonds sharing one source: two computed values derived from the source and a computation
+ * reading both. Measures height ordered flushing, where each sink runs once per write.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiamondBenchmark extends ReactorBenchmarkState {
+    @Param({"1000"})
+    public int diamonds;
+
+    private ReactorIntVar mSource;
+    private int mSinkRuns;
+    private int mNext;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        setUpReactor();
+        mSource = new ReactorIntVar(0);
+        for (int i = 0; i < diamonds; i++) {
+            final ReactorComputed<Integer> left = new ReactorComputed<Integer>(new ReactorComputedFunction<Integer>() {
+                @Override
+                public Integer compute() {
+                    return mSource.getValue() + 1;
+                }
+            });
+            final ReactorComputed<Integer> right = new ReactorComputed<Integer>(new ReactorComputedFunction<Integer>() {
+                @Override
+                public Integer compute() {
+                    return mSource.getValue() * 2;
+                }
+            });
+            mReactor.autoRun(new ReactorComputationFunction() {
+                @Override
+                public void react(ReactorComputation reactorComputation) {
+                    left.getValue();
+                    right.getValue();
+                    mSinkRuns++;
+                }
+            });
+        }
+    }
+
+    @Benchmark
+    public int writeAndFlush() {
+        mSource.setValue(++mNext);
+        mReactor.flush();
+        return mSinkRuns;
+    }
+}
@@ -0,0 +1,57 @@
+package io.dwak.reactor.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.dwak.reactor.ReactorComputation;
+import io.dwak.reactor.ReactorIntVar;
+import io.dwak.reactor.interfaces.ReactorComputationFunction;
+
+/**
+ * One var read by many computations: measures changed() fanning out and the flush rerunning
+ * every dependent, which re-registers its dependency
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FanOutBenchmark extends ReactorBenchmarkState {
+    @Param({"10000"})
+    public int dependents;
+
+    private ReactorIntVar mSource;
+    private int mSum;
+    private int mNext;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        setUpReactor();
+        mSource = new ReactorIntVar(0);
+        for (int i = 0; i < dependents; i++) {
+            mReactor.autoRun(new ReactorComputationFunction() {
+                @Override
+                public void react(ReactorComputation reactorComputation) {
+                    mSum += mSource.getValue();
+                }
+            });
+        }
+    }
+
+    @Benchmark
+    public int writeAndFlush() {
+        mSource.setValue(++mNext);
+        mReactor.flush();
+        return mSum;
+    }
+}
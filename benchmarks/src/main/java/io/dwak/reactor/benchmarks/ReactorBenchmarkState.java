@@ -0,0 +1,31 @@
+package io.dwak.reactor.benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import io.dwak.reactor.Reactor;
+import io.dwak.reactor.scheduler.ManualReactorScheduler;
+
+/**
+ * Gives each benchmark thread its own reactor on a {@link ManualReactorScheduler}, so nothing
+ * runs behind the benchmark's back and every flush is an explicit {@link Reactor#flush()}
+ */
+@State(Scope.Thread)
+public abstract class ReactorBenchmarkState {
+    protected Reactor mReactor;
+
+    /**
+     * Call first from the subclass's trial setup, which JMH runs on the benchmark thread
+     */
+    protected void setUpReactor() {
+        mReactor = new Reactor(new ManualReactorScheduler());
+        mReactor.bindToCurrentThread();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownReactor() {
+        Reactor.unbindCurrentThread();
+    }
+}
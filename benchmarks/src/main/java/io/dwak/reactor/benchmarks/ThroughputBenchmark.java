@@ -0,0 +1,84 @@
+package io.dwak.reactor.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.dwak.reactor.ReactorComputation;
+import io.dwak.reactor.ReactorIntVar;
+import io.dwak.reactor.interfaces.ReactorComputationFunction;
+
+/**
+ * Steady state reads and writes: unobserved writes, a single var with a single reader, and a
+ * computation rereading many vars, which exercises depend() on an unchanged set of dependencies
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ThroughputBenchmark extends ReactorBenchmarkState {
+    @Param({"100"})
+    public int reads;
+
+    private ReactorIntVar mUnobserved;
+    private ReactorIntVar mObserved;
+    private ReactorIntVar[] mReadVars;
+    private ReactorComputation mReader;
+    private int mSum;
+    private int mNext;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        setUpReactor();
+        mUnobserved = new ReactorIntVar(0);
+        mObserved = new ReactorIntVar(0);
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                mSum += mObserved.getValue();
+            }
+        });
+
+        mReadVars = new ReactorIntVar[reads];
+        for (int i = 0; i < reads; i++) {
+            mReadVars[i] = new ReactorIntVar(i);
+        }
+        mReader = mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                for (int i = 0; i < mReadVars.length; i++) {
+                    mSum += mReadVars[i].getValue();
+                }
+            }
+        });
+    }
+
+    @Benchmark
+    public void unobservedWrite() {
+        mUnobserved.setValue(++mNext);
+    }
+
+    @Benchmark
+    public int observedWriteAndFlush() {
+        mObserved.setValue(++mNext);
+        mReactor.flush();
+        return mSum;
+    }
+
+    @Benchmark
+    public int rereadAll() {
+        mReader.invalidate();
+        mReactor.flush();
+        return mSum;
+    }
+}
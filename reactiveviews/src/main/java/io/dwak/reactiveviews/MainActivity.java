@@ -5,16 +5,27 @@ import android.support.v7.app.ActionBarActivity;
 
 import io.dwak.reactiveviews.viewmodel.FavoriteFoodViewModel;
 import io.dwak.reactiveviews.widget.MainView;
+import io.dwak.reactor.ReactorScope;
+import io.dwak.reactor.android.ReactorLifecycle;
 
 
 public class MainActivity extends ActionBarActivity {
+    private FavoriteFoodViewModel mViewModel;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
         MainView mainView = (MainView) findViewById(R.id.main);
-        FavoriteFoodViewModel favoriteFoodViewModel = new FavoriteFoodViewModel(FavoriteFoodViewModel.PIZZA, 100);
-        mainView.setViewModel(favoriteFoodViewModel);
+        mViewModel = new FavoriteFoodViewModel(FavoriteFoodViewModel.PIZZA, 100);
+        final ReactorScope scope = new ReactorScope();
+        ReactorLifecycle.bindToActivity(this, scope);
+        mainView.setViewModel(mViewModel, scope);
+    }
+
+    @Override
+    protected void onDestroy() {
+        mViewModel.stop();
+        super.onDestroy();
     }
 }
@@ -1,6 +1,10 @@
 package io.dwak.reactiveviews.viewmodel;
 
+import io.dwak.reactor.ReactorBooleanVar;
+import io.dwak.reactor.ReactorIntVar;
+import io.dwak.reactor.ReactorTimedValue;
 import io.dwak.reactor.ReactorVar;
+import io.dwak.reactor.interfaces.ReactorComputedFunction;
 
 /**
  * Created by vishnu on 12/23/14.
@@ -8,23 +12,37 @@ import io.dwak.reactor.ReactorVar;
 public class FavoriteFoodViewModel {
     public static String PIZZA = "PIZZA";
     public static String MANGOES = "MANGOES";
-    private ReactorVar<Boolean> mIsPizza;
+    private ReactorBooleanVar mIsPizza;
     private ReactorVar<String> mFavoriteFood;
-    private ReactorVar<Integer> mFavoritePercentage;
+    private ReactorIntVar mFavoritePercentage;
     private ReactorVar<String> mEditTextValue;
+    private ReactorTimedValue<String> mSettledEditTextValue;
+    private ReactorTimedValue<Integer> mThrottledFavoritePercentage;
 
     public FavoriteFoodViewModel(String favoriteFood, int favoritePercentage) {
-        mIsPizza = new ReactorVar<Boolean>(PIZZA.equals(favoriteFood));
+        mIsPizza = new ReactorBooleanVar(PIZZA.equals(favoriteFood));
         mFavoriteFood = new ReactorVar<String>(favoriteFood);
-        mFavoritePercentage = new ReactorVar<Integer>(favoritePercentage);
+        mFavoritePercentage = new ReactorIntVar(favoritePercentage);
         mEditTextValue = new ReactorVar<String>("");
+        mSettledEditTextValue = ReactorTimedValue.debounce(new ReactorComputedFunction<String>() {
+            @Override
+            public String compute() {
+                return mEditTextValue.getValue();
+            }
+        }, 300);
+        mThrottledFavoritePercentage = ReactorTimedValue.throttle(new ReactorComputedFunction<Integer>() {
+            @Override
+            public Integer compute() {
+                return mFavoritePercentage.getValue();
+            }
+        }, 100);
     }
 
-    public Boolean getPizza() {
+    public boolean getPizza() {
         return mIsPizza.getValue();
     }
 
-    public void setIsPizza(Boolean isPizza) {
+    public void setIsPizza(boolean isPizza) {
         this.mIsPizza.setValue(isPizza);
     }
 
@@ -36,11 +54,18 @@ public class FavoriteFoodViewModel {
         this.mFavoriteFood.setValue(favoriteFood);
     }
 
-    public Integer getFavoritePercentage() {
+    public int getFavoritePercentage() {
         return mFavoritePercentage.getValue();
     }
 
-    public void setFavoritePercentage(Integer favoritePercentage) {
+    /**
+     * @return the percentage, changing at most every 100ms while the slider is dragged
+     */
+    public int getThrottledFavoritePercentage() {
+        return mThrottledFavoritePercentage.getValue();
+    }
+
+    public void setFavoritePercentage(int favoritePercentage) {
         this.mFavoritePercentage.setValue(favoritePercentage);
     }
 
@@ -48,7 +73,23 @@ public class FavoriteFoodViewModel {
         return mEditTextValue.getValue();
     }
 
+    /**
+     * @return the text once typing has paused for 300ms
+     */
+    public String getSettledEditTextValue() {
+        return mSettledEditTextValue.getValue();
+    }
+
     public void setEditTextValue(String editTextValue) {
         this.mEditTextValue.setValue(editTextValue);
     }
+
+    /**
+     * Stops the timed values. They run their own computations and timers outside any scope,
+     * so the owner of this view model has to stop them when it goes away.
+     */
+    public void stop() {
+        mSettledEditTextValue.stop();
+        mThrottledFavoritePercentage.stop();
+    }
 }
@@ -14,8 +14,8 @@ import android.widget.Toast;
 
 import io.dwak.reactiveviews.R;
 import io.dwak.reactiveviews.viewmodel.FavoriteFoodViewModel;
-import io.dwak.reactor.Reactor;
 import io.dwak.reactor.ReactorComputation;
+import io.dwak.reactor.ReactorScope;
 import io.dwak.reactor.interfaces.ReactorComputationFunction;
 
 /**
@@ -30,6 +30,7 @@ public class MainView extends RelativeLayout {
     private EditText mEditText;
     private TextView mEditTextDisplay;
     private FavoriteFoodViewModel mViewModel;
+    private ReactorScope mScope;
     private Context mContext;
 
     public MainView(Context context) {
@@ -98,35 +99,40 @@ public class MainView extends RelativeLayout {
     }
 
     private void bindReactions() {
-        Reactor.getInstance().setShouldLog(true);
-
-        Reactor.getInstance().autoRun(new ReactorComputationFunction() {
+        mScope.autoRun(new ReactorComputationFunction() {
             @Override
             public void react(ReactorComputation reactorComputation) {
-                mEditTextDisplay.setText(mViewModel.getEditTextValue());
+                mEditTextDisplay.setText(mViewModel.getSettledEditTextValue());
             }
         });
 
-        Reactor.getInstance().autoRun(new ReactorComputationFunction() {
+        mScope.autoRun(new ReactorComputationFunction() {
             @Override
             public void react(ReactorComputation reactorComputation) {
                 mTextView.setText(mViewModel.getFavoriteFood());
             }
         });
 
-        Reactor.getInstance().autoRun(new ReactorComputationFunction() {
+        mScope.autoRun(new ReactorComputationFunction() {
             @Override
             public void react(ReactorComputation reactorComputation) {
                 mSeekBar.setProgress(mViewModel.getFavoritePercentage());
-                mSliderValue.setText("Percent favorite: " + String.valueOf(mViewModel.getFavoritePercentage()));
+            }
+        });
+
+        mScope.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                final int favoritePercentage = mViewModel.getThrottledFavoritePercentage();
+                mSliderValue.setText("Percent favorite: " + String.valueOf(favoritePercentage));
 
-                if (mViewModel.getFavoritePercentage() == 0) {
+                if (favoritePercentage == 0) {
                     Toast.makeText(mContext, "You don't like this food at all!", Toast.LENGTH_SHORT).show();
                 }
             }
         });
 
-        Reactor.getInstance().autoRun(new ReactorComputationFunction() {
+        mScope.autoRun(new ReactorComputationFunction() {
             @Override
             public void react(ReactorComputation reactorComputation) {
                 mViewModel.setFavoriteFood(mViewModel.getPizza() ? FavoriteFoodViewModel.PIZZA : FavoriteFoodViewModel.MANGOES);
@@ -134,8 +140,12 @@ public class MainView extends RelativeLayout {
         });
     }
 
-    public void setViewModel(FavoriteFoodViewModel viewModel) {
+    /**
+     * @param scope scope owning the reactions, already bound to a lifecycle by the caller
+     */
+    public void setViewModel(FavoriteFoodViewModel viewModel, ReactorScope scope) {
         mViewModel = viewModel;
+        mScope = scope;
         bindReactions();
     }
 }
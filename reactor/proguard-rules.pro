@@ -15,3 +15,13 @@
 #-keepclassmembers class fqcn.of.javascript.interface.for.webview {
 #   public *;
 #}
+
+# ReactorPlatform looks up the Android defaults by name
+-keep class io.dwak.reactor.android.LooperReactorScheduler {
+    public <init>();
+    public static *** forCurrentThread();
+    public static *** mainThread();
+}
+-keep class io.dwak.reactor.android.LogcatReactorLogger {
+    public <init>();
+}
@@ -1,14 +1,29 @@
 package io.dwak.reactor;
 
-import android.os.Handler;
-import android.os.Looper;
-
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import io.dwak.reactor.interfaces.ReactorBatchFunction;
 import io.dwak.reactor.interfaces.ReactorComputationFunction;
+import io.dwak.reactor.interfaces.ReactorComputedFunction;
+import io.dwak.reactor.interfaces.ReactorErrorHandler;
 import io.dwak.reactor.interfaces.ReactorFlushCallback;
 import io.dwak.reactor.interfaces.ReactorInvalidateCallback;
+import io.dwak.reactor.interfaces.ReactorLogger;
+import io.dwak.reactor.interfaces.ReactorPureFunction;
+import io.dwak.reactor.interfaces.ReactorResultCallback;
+import io.dwak.reactor.interfaces.ReactorRunawayListener;
+import io.dwak.reactor.interfaces.ReactorScheduler;
 
 /**
  * See https://www.meteor.com/tracker for more documentation on the source library
@@ -17,21 +32,40 @@ public class Reactor {
 
     public static final String TAG = Reactor.class.getSimpleName();
 
+    public static final int DEFAULT_RERUN_LIMIT = 100;
+    public static final int DEFAULT_FLUSH_RERUN_LIMIT = 100000;
+
     /**
-     * True if there is a current computation, meaning that dependencies on reactive data sources
-     * will be tracked and potentially cause the current computation to be rerun.
+     * Per computation rerun counts are kept in 16 bits
+     */
+    private static final int MAX_RERUN_LIMIT = 0xFFFE;
+
+    /**
+     * Invalidations kept for a cycle report
+     */
+    private static final int MAX_CYCLE_STEPS = 64;
+
+    /**
+     * Tracks the next id for a computation, shared by all reactors so ids stay unique
+     */
+    private static final AtomicInteger sNextId = new AtomicInteger(1);
+
+    /**
+     * Shared instance used by threads that have no reactor of their own
      */
-    static boolean mActive = false;
+    private static volatile Reactor sInstance;
 
     /**
-     * Tracks the next id for a computation
+     * Reactor bound to each thread, either permanently through {@link #forCurrentThread()} and
+     * {@link #bindToCurrentThread()}, or while one of its computations is computing
      */
-    static int nextId = 1;
+    private static final ThreadLocal<Reactor> sThreadReactor = new ThreadLocal<Reactor>();
 
     /**
-     * Current instance of the {@link #Reactor()}
+     * True if there is a current computation, meaning that dependencies on reactive data sources
+     * will be tracked and potentially cause the current computation to be rerun.
      */
-    private static Reactor sInstance;
+    private boolean mActive = false;
 
     /**
      * The current computation, or `null` if there isn't one.
@@ -42,9 +76,30 @@ public class Reactor {
     private ReactorComputation mCurrentReactorComputation = null;
 
     /**
-     * computations whose callbacks we should call at flush time
+     * Orders pending computations by dependency height, lowest first, then by id.
+     * A computation is higher than every computation that writes something it reads, so in a
+     * diamond the computation at the bottom only runs once its inputs are up to date.
      */
-    private ArrayDeque<ReactorComputation> mPendingReactorComputations;
+    private static final Comparator<ReactorComputation> HEIGHT_ORDER = new Comparator<ReactorComputation>() {
+        @Override
+        public int compare(ReactorComputation lhs, ReactorComputation rhs) {
+            if (lhs.getQueuedHeight() != rhs.getQueuedHeight()) {
+                return lhs.getQueuedHeight() < rhs.getQueuedHeight() ? -1 : 1;
+            }
+            return lhs.getId() < rhs.getId() ? -1 : (lhs.getId() == rhs.getId() ? 0 : 1);
+        }
+    };
+
+    /**
+     * computations whose callbacks we should call at flush time, in {@link #HEIGHT_ORDER}
+     */
+    private PriorityQueue<ReactorComputation> mPendingReactorComputations;
+
+    /**
+     * Counts the times a computation was queued, so the order two computations were queued in
+     * can be compared
+     */
+    private int mEnqueueSequence;
 
     /**
      * `true` if a {@link #flush()} is scheduled, or if we are in {@link #flush()} now
@@ -65,43 +120,450 @@ public class Reactor {
     private boolean mInCompute = false;
 
     /**
-     * Collection of callbacks to call on flush
+     * Callbacks to call on flush, one queue per {@link ReactorFlushPhase}
+     */
+    private final ArrayList<ArrayDeque<ReactorFlushCallback>> mFlushCallbacks;
+
+    /**
+     * Number of callbacks across all phases
+     */
+    private int mFlushCallbackCount;
+
+    /**
+     * Records computations, invalidations and flushes, null when tracing is off
+     */
+    private ReactorTracer mTracer;
+
+    /**
+     * Counts and times the work done, null when metrics are off
+     */
+    private ReactorMetrics mMetrics;
+
+    /**
+     * Schedules flushes after the first invalidation
+     */
+    private ReactorScheduler mScheduler;
+
+    /**
+     * Where log output goes
+     */
+    private ReactorLogger mLogger;
+
+    /**
+     * Time a scheduled flush may take before the rest is deferred to the next tick, 0 for no limit
+     */
+    private long mFlushBudgetNanos;
+
+    /**
+     * Number of computations the last flush deferred to the next tick
+     */
+    private int mDeferredComputationCount;
+
+    /**
+     * Free list of recycled edges, linked through {@link ReactorEdge#mNextEdge}
+     */
+    private ReactorEdge mEdgePool;
+    private int mEdgePoolSize;
+
+    /**
+     * Smallest pool size since the last {@link #trimEdgePool()}, the edges nothing needed in between
+     */
+    private int mEdgePoolLowWater;
+
+    /**
+     * Snapshots of dependents taken by {@link ReactorDependency#changed()}, used as a stack so
+     * changes made from invalidation callbacks get their own slice
+     */
+    private ReactorComputation[] mFanOutScratch = new ReactorComputation[16];
+    private int mFanOutTop;
+
+    /**
+     * Pending computations that height ordering kept from running early against stale inputs,
+     * see {@link #recordRedundantRecomputeAvoided(ReactorComputation)}
+     */
+    private long mRedundantRecomputesAvoided;
+
+    /**
+     * Thread that owns this reactor's state. Writes from other threads are queued for it.
+     */
+    private volatile Thread mOwnerThread;
+
+    /**
+     * Writes posted from other threads, at most one entry per var until it is applied
+     */
+    private final ConcurrentLinkedQueue<ReactorPendingWrite> mPendingWrites = new ConcurrentLinkedQueue<ReactorPendingWrite>();
+
+    /**
+     * Guards scheduling a flush from other threads, where {@link #mWillFlush} can't be used
+     */
+    private final AtomicBoolean mPendingWritesFlushScheduled = new AtomicBoolean();
+
+    /**
+     * Runs the transforms of pure computations in parallel during a flush, null to run them inline
+     */
+    private Executor mParallelExecutor;
+
+    /**
+     * True while a flush reruns pure computations and collects their transforms
+     */
+    private boolean mCollectingPureTasks;
+
+    /**
+     * Pure computations collected for the current parallel batch, in flush order
+     */
+    private final ArrayList<ReactorPureTask<?, ?>> mPureTasks = new ArrayList<ReactorPureTask<?, ?>>();
+
+    /**
+     * Height that writes made while publishing a pure result count as coming from
      */
-    private ArrayList<ReactorFlushCallback> mFlushCallbacks;
+    private int mPublishHeight;
+    private int mPublishSequence;
 
     /**
-     * Whether or not Reactor should log computations
+     * Depth of nested {@link #beginBatch()} calls
      */
-    private boolean mShouldLog;
+    private int mBatchDepth;
+
+    /**
+     * Dependencies changed in the current batch, each at most once
+     */
+    private final ArrayList<ReactorDependency> mBatchedChanges = new ArrayList<ReactorDependency>();
+
+    /**
+     * Most reruns of one computation in one flush before it counts as a runaway
+     */
+    private int mRerunLimit = DEFAULT_RERUN_LIMIT;
+
+    /**
+     * Most reruns of all computations in one flush before the rest is deferred
+     */
+    private int mFlushRerunLimit = DEFAULT_FLUSH_RERUN_LIMIT;
+
+    private ReactorRunawayPolicy mRunawayPolicy = ReactorRunawayPolicy.STOP;
+
+    /**
+     * Receives exceptions thrown during a flush, null to log them
+     */
+    private ReactorErrorHandler mErrorHandler;
+
+    /**
+     * Told about runaways, null to log them
+     */
+    private ReactorRunawayListener mRunawayListener;
+
+    /**
+     * Counts flushes, so computations can tell which flush their rerun count belongs to
+     */
+    private int mFlushSequence;
+
+    /**
+     * Reruns of all computations in the current flush
+     */
+    private int mFlushRerunCount;
+
+    /**
+     * Set once a computation passes a rerun limit, while the invalidations of its next round are recorded
+     */
+    private boolean mRecordingCycle;
+
+    /**
+     * Computation whose next round is being recorded
+     */
+    private ReactorComputation mCycleSuspect;
+
+    /**
+     * Reruns over a limit by other computations while recording, bounded so a suspect that
+     * never comes back can't hide a runaway
+     */
+    private int mCycleOthers;
+    private final ArrayList<ReactorCycleReport.Step> mCycleSteps = new ArrayList<ReactorCycleReport.Step>();
+
+    /**
+     * Runaway computations to rerun in the next flush
+     */
+    private final ArrayList<ReactorComputation> mRunawaysDeferred = new ArrayList<ReactorComputation>();
+
+    /**
+     * Posted to {@link #mScheduler} to run {@link #flush()}, allocated once
+     */
+    private final Runnable mFlushRunnable = new Runnable() {
+        @Override
+        public void run() {
+            flush(true);
+        }
+    };
 
     Reactor() {
-        mPendingReactorComputations = new ArrayDeque<ReactorComputation>();
-        mFlushCallbacks = new ArrayList<ReactorFlushCallback>();
+        this(ReactorPlatform.defaultScheduler());
+        mOwnerThread = ReactorPlatform.defaultOwnerThread();
+    }
+
+    /**
+     * Creates an independent reactor domain with its own current computation, pending queue and
+     * scheduler. The calling thread becomes the owner of the domain: create its computations on
+     * the thread its scheduler runs flushes on, and call {@link #bindToCurrentThread()} there so
+     * reactive data sources find it. Reactive vars written from any other thread queue the write
+     * for the owner.
+     *
+     * @param scheduler scheduler that runs this domain's flushes
+     */
+    public Reactor(ReactorScheduler scheduler) {
+        if (scheduler == null) {
+            throw new IllegalArgumentException("scheduler == null");
+        }
+
+        mPendingReactorComputations = new PriorityQueue<ReactorComputation>(11, HEIGHT_ORDER);
+        mFlushCallbacks = newFlushCallbackQueues();
+        mScheduler = scheduler;
+        mLogger = ReactorPlatform.defaultLogger();
+        mOwnerThread = Thread.currentThread();
     }
 
+    /**
+     * Returns the reactor bound to the calling thread, which inside a computation is always the
+     * reactor running it. Threads without a reactor of their own share one instance.
+     * <p>
+     * On Android the shared instance flushes on the main looper. On a plain JVM it uses a
+     * {@link io.dwak.reactor.scheduler.ManualReactorScheduler}, so either call {@link #flush()}
+     * or install a different scheduler with {@link #setScheduler(ReactorScheduler)}.
+     *
+     * @return the current Reactor instance
+     */
     public static Reactor getInstance() {
-        if (sInstance == null) {
-            sInstance = new Reactor();
+        final Reactor bound = sThreadReactor.get();
+        if (bound != null) {
+            return bound;
+        }
+        return getSharedInstance();
+    }
+
+    private static Reactor getSharedInstance() {
+        Reactor instance = sInstance;
+        if (instance == null) {
+            synchronized (Reactor.class) {
+                instance = sInstance;
+                if (instance == null) {
+                    instance = new Reactor();
+                    sInstance = instance;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the reactor of the calling thread, creating and binding one if needed. On an Android
+     * thread with a looper the new reactor flushes on that looper, otherwise it uses a
+     * {@link io.dwak.reactor.scheduler.ManualReactorScheduler}.
+     *
+     * @return the calling thread's own Reactor
+     */
+    public static Reactor forCurrentThread() {
+        Reactor reactor = sThreadReactor.get();
+        if (reactor == null) {
+            reactor = new Reactor(ReactorPlatform.schedulerForCurrentThread());
+            sThreadReactor.set(reactor);
+        }
+        return reactor;
+    }
+
+    /**
+     * Makes this reactor the one {@link #getInstance()} returns on the calling thread,
+     * and makes the calling thread its owner
+     */
+    public void bindToCurrentThread() {
+        sThreadReactor.set(this);
+        mOwnerThread = Thread.currentThread();
+    }
+
+    /**
+     * @return true if the calling thread owns this reactor and may change its data directly
+     */
+    public boolean isOwnerThread() {
+        return Thread.currentThread() == mOwnerThread;
+    }
+
+    public Thread getOwnerThread() {
+        return mOwnerThread;
+    }
+
+    /**
+     * Queues a write from another thread and makes sure a flush will apply it. Safe to call from any thread.
+     */
+    void postWrite(ReactorPendingWrite write) {
+        mPendingWrites.offer(write);
+        if (mPendingWritesFlushScheduled.compareAndSet(false, true)) {
+            mScheduler.schedule(mFlushRunnable);
+        }
+    }
+
+    private void applyPendingWrites() {
+        mPendingWritesFlushScheduled.set(false);
+        if (mPendingWrites.isEmpty()) {
+            return;
+        }
+
+        beginBatch();
+        try {
+            ReactorPendingWrite write;
+            while ((write = mPendingWrites.poll()) != null) {
+                write.applyPendingWrite();
+            }
+        } finally {
+            endBatch();
+        }
+    }
+
+    /**
+     * Runs the function as one transaction. Dependencies changed inside it, or inside batches nested
+     * in it, only invalidate their dependents once the outermost batch ends, each computation at most
+     * once, and then a single flush runs. Computations never see a half applied batch.
+     *
+     * @param function function making the writes
+     */
+    public void batch(ReactorBatchFunction function) {
+        beginBatch();
+        try {
+            function.run();
+        } finally {
+            endBatch();
+        }
+    }
+
+    /**
+     * Starts a batch, see {@link #batch(ReactorBatchFunction)}. Must be paired with {@link #endBatch()}.
+     */
+    public void beginBatch() {
+        mBatchDepth++;
+    }
+
+    /**
+     * Ends a batch. Ending the outermost batch invalidates everything that depends on what changed
+     * and flushes right away, unless this is called from inside a flush or computation, in which
+     * case the current or scheduled flush picks up the work.
+     */
+    public void endBatch() {
+        if (mBatchDepth == 0) {
+            throw new IllegalStateException("Reactor.endBatch without beginBatch");
+        }
+        if (--mBatchDepth > 0) {
+            return;
+        }
+
+        // fanning out can't add entries, since we're no longer batching
+        int i = 0;
+        try {
+            for (; i < mBatchedChanges.size(); i++) {
+                mBatchedChanges.get(i).fanOut(this);
+            }
+        } finally {
+            // after an exception the rest still has to be released from the batch
+            for (i++; i < mBatchedChanges.size(); i++) {
+                mBatchedChanges.get(i).cancelBatchedChange();
+            }
+            mBatchedChanges.clear();
         }
-        return sInstance;
+
+        if (mWillFlush && !mInFlush && !mInCompute) {
+            flush();
+        }
+    }
+
+    public boolean isBatching() {
+        return mBatchDepth > 0;
+    }
+
+    void addBatchedChange(ReactorDependency dependency) {
+        mBatchedChanges.add(dependency);
+    }
+
+    /**
+     * Removes the calling thread's binding, so {@link #getInstance()} returns the shared instance again
+     */
+    public static void unbindCurrentThread() {
+        sThreadReactor.remove();
+    }
+
+    /**
+     * Binds a reactor to the calling thread while one of its computations runs
+     *
+     * @return the previously bound reactor, to pass to {@link #restoreThreadReactor(Reactor)}
+     */
+    static Reactor swapThreadReactor(Reactor reactor) {
+        final Reactor previous = sThreadReactor.get();
+        if (previous != reactor) {
+            sThreadReactor.set(reactor);
+        }
+        return previous;
+    }
+
+    static void restoreThreadReactor(Reactor previous) {
+        if (previous == null) {
+            sThreadReactor.remove();
+        }
+        else {
+            sThreadReactor.set(previous);
+        }
+    }
+
+    static int nextComputationId() {
+        return sNextId.getAndIncrement();
     }
 
     public void requireFlush() {
         if (!mWillFlush) {
-            new Handler(Looper.getMainLooper()).postAtFrontOfQueue(new Runnable() {
-                @Override
-                public void run() {
-                    flush();
-                }
-            });
+            mScheduler.schedule(mFlushRunnable);
             mWillFlush = true;
         }
     }
 
+    public ReactorScheduler getScheduler() {
+        return mScheduler;
+    }
+
+    /**
+     * Replaces the scheduler used to schedule flushes. A flush that is already scheduled
+     * is cancelled on the old scheduler and moved over to the new one, so it runs once.
+     *
+     * @param scheduler scheduler to use from now on
+     */
+    public void setScheduler(ReactorScheduler scheduler) {
+        if (scheduler == null) {
+            throw new IllegalArgumentException("scheduler == null");
+        }
+
+        final boolean scheduled = (mWillFlush && !mInFlush) || mPendingWritesFlushScheduled.get();
+        final ReactorScheduler previous = mScheduler;
+        mScheduler = scheduler;
+        if (scheduled) {
+            previous.cancel(mFlushRunnable);
+            scheduler.schedule(mFlushRunnable);
+        }
+    }
+
+    public ReactorLogger getLogger() {
+        return mLogger;
+    }
+
+    public void setLogger(ReactorLogger logger) {
+        if (logger == null) {
+            throw new IllegalArgumentException("logger == null");
+        }
+        mLogger = logger;
+    }
+
     /**
      * Process all reactive updates immediately and ensure that all invalidated computations are rerun.
+     * This ignores the flush budget, see {@link #setFlushBudget(long, TimeUnit)}.
      */
     public void flush() {
+        flush(false);
+    }
+
+    /**
+     * @param budgeted true to stop once {@link #mFlushBudgetNanos} is used up and continue on the next tick
+     */
+    private void flush(boolean budgeted) {
         if (mInFlush) {
             throw new IllegalStateException("Can't call Reactor.flush while flushing");
         }
@@ -110,37 +572,448 @@ public class Reactor {
             throw new IllegalStateException("Can't flush inside Reactor.autoRun");
         }
 
+        // this flush does the work of any flush still scheduled, so a direct flush doesn't leave
+        // one behind to run again. Cancelling before the pending writes are taken keeps the
+        // flush scheduled by a write posted after that.
+        if (mWillFlush || mPendingWritesFlushScheduled.get()) {
+            mScheduler.cancel(mFlushRunnable);
+        }
+
         mInFlush = true;
         mWillFlush = true;
+        mDeferredComputationCount = 0;
+        mFlushSequence++;
+        mFlushRerunCount = 0;
+        if (mTracer != null) {
+            mTracer.record(ReactorTracer.FLUSH_START, 0, 0);
+        }
+        final ReactorMetrics metrics = mMetrics;
+        final long flushStartNanos = metrics != null ? System.nanoTime() : 0;
+        final int queueDepth = mPendingReactorComputations.size();
+
+        // values posted from other threads land before anything recomputes
+        applyPendingWrites();
+
+        budgeted = budgeted && mFlushBudgetNanos > 0;
+        final long deadline = budgeted ? System.nanoTime() + mFlushBudgetNanos : 0;
+        boolean outOfBudget = false;
 
         boolean finishedTry = false;
         try {
-            while (!mPendingReactorComputations.isEmpty() || !mFlushCallbacks.isEmpty()) {
-                while(!mPendingReactorComputations.isEmpty()) {
-                    mPendingReactorComputations.remove().reCompute();
+            // every slice does at least one unit of work so a deferred flush always makes progress
+            boolean didWork = false;
+            while (!mPendingReactorComputations.isEmpty() || mFlushCallbackCount > 0) {
+                while (!mPendingReactorComputations.isEmpty()) {
+                    if (budgeted && didWork && System.nanoTime() >= deadline) {
+                        outOfBudget = true;
+                        break;
+                    }
+                    final ReactorComputation next = mPendingReactorComputations.peek();
+                    if (next.isPure() && mParallelExecutor != null) {
+                        runPureBatch();
+                    }
+                    else {
+                        reComputeIsolated(pollPendingReactorComputation());
+                    }
+                    didWork = true;
+                }
+
+                if (outOfBudget) {
+                    break;
                 }
 
-                if (!mFlushCallbacks.isEmpty()) {
-                    final ReactorFlushCallback function = mFlushCallbacks.remove(0);
+                // one callback at a time from the earliest phase, computations it invalidates
+                // settle before the next one
+                if (mFlushCallbackCount > 0) {
+                    if (budgeted && didWork && System.nanoTime() >= deadline) {
+                        outOfBudget = true;
+                        break;
+                    }
+                    final ReactorFlushCallback function = pollFlushCallback();
                     try {
                         function.onFlush();
-                    } catch (Exception e) {
-                        e.printStackTrace();
+                    } catch (RuntimeException e) {
+                        handleError(null, e);
                     }
+                    didWork = true;
                 }
             }
             finishedTry = true;
         } finally {
             if (!finishedTry) {
-                mInFlush = false;
-                Reactor.getInstance().flush();
+                // an Error or a throwing error handler got out: leave the rest for the next tick
+                // rather than flushing again from here
+                outOfBudget = !mPendingReactorComputations.isEmpty() || mFlushCallbackCount > 0;
             }
 
-            mWillFlush = false;
             mInFlush = false;
+            if (mTracer != null) {
+                mTracer.record(ReactorTracer.FLUSH_END, 0, 0);
+            }
+            mRecordingCycle = false;
+            mCycleSuspect = null;
+            mCycleSteps.clear();
+            trimEdgePool();
+            if (requeueDeferredRunaways()) {
+                outOfBudget = true;
+            }
+            if (outOfBudget) {
+                // the pending queue keeps its order, pick up where we left off after the frame
+                mDeferredComputationCount = mPendingReactorComputations.size();
+                mScheduler.scheduleDelayed(mFlushRunnable, 0);
+            }
+            else {
+                mWillFlush = false;
+            }
+            if (metrics != null) {
+                metrics.recordFlush(System.nanoTime() - flushStartNanos, queueDepth, mDeferredComputationCount);
+            }
         }
     }
 
+    /**
+     * Brings an invalidated computation up to date because its value is being read. A read from
+     * outside any flush or computation counts as a pass of its own against the rerun limits, the
+     * way a flush does, so reading a value after every write never looks like a runaway.
+     */
+    void reComputeForRead(ReactorComputation reactorComputation) {
+        if (mInFlush || mInCompute) {
+            reactorComputation.reCompute();
+            return;
+        }
+
+        mFlushSequence++;
+        mFlushRerunCount = 0;
+        try {
+            reactorComputation.reCompute();
+        } finally {
+            mRecordingCycle = false;
+            mCycleSuspect = null;
+            mCycleSteps.clear();
+            // a deferred runaway continues in the next flush
+            if (requeueDeferredRunaways()) {
+                requireFlush();
+            }
+        }
+    }
+
+    /**
+     * Counts a rerun of the computation against the rerun limits. The first computation over a
+     * limit gets one more round while the invalidations are recorded. When it comes back it is
+     * caught, the runaway policy is applied to it and the listener gets the recorded cycle.
+     *
+     * @return false if the computation mustn't rerun now
+     */
+    boolean allowRerun(ReactorComputation reactorComputation) {
+        final int runs = reactorComputation.countFlushRun(mFlushSequence);
+        mFlushRerunCount++;
+        final boolean overFlushLimit = mFlushRerunCount > mFlushRerunLimit;
+        if (runs <= mRerunLimit && !overFlushLimit) {
+            return true;
+        }
+
+        if (!mRecordingCycle) {
+            mRecordingCycle = true;
+            mCycleSuspect = reactorComputation;
+            mCycleOthers = 0;
+            mCycleSteps.clear();
+            return true;
+        }
+        if (reactorComputation != mCycleSuspect && ++mCycleOthers <= MAX_CYCLE_STEPS) {
+            return true;
+        }
+
+        // deferring the rest of the flush is the only fair answer to a flush that is too big
+        final ReactorRunawayPolicy policy = runs > mRerunLimit ? mRunawayPolicy : ReactorRunawayPolicy.DEFER;
+        final ReactorCycleReport report = new ReactorCycleReport(reactorComputation,
+                runs > mRerunLimit ? runs : mFlushRerunCount, runs <= mRerunLimit, policy,
+                new ArrayList<ReactorCycleReport.Step>(mCycleSteps));
+        mRecordingCycle = false;
+        mCycleSuspect = null;
+        mCycleSteps.clear();
+
+        if (policy == ReactorRunawayPolicy.STOP) {
+            reactorComputation.stop();
+        }
+        else {
+            mRunawaysDeferred.add(reactorComputation);
+        }
+
+        if (mRunawayListener != null) {
+            mRunawayListener.onRunaway(report);
+        }
+        else {
+            mLogger.log(TAG, report.toString());
+        }
+        return false;
+    }
+
+    boolean isRecordingCycle() {
+        return mRecordingCycle;
+    }
+
+    void recordCycleStep(ReactorDependency dependency, ReactorComputation invalidated) {
+        if (mCycleSteps.size() == MAX_CYCLE_STEPS) {
+            mCycleSteps.remove(0);
+        }
+        mCycleSteps.add(new ReactorCycleReport.Step(dependency, mCurrentReactorComputation, invalidated));
+    }
+
+    /**
+     * Queues deferred runaways again, now that the flush that caught them is over
+     *
+     * @return true if any were queued
+     */
+    private boolean requeueDeferredRunaways() {
+        boolean queued = false;
+        for (int i = 0; i < mRunawaysDeferred.size(); i++) {
+            final ReactorComputation reactorComputation = mRunawaysDeferred.get(i);
+            if (reactorComputation.isInvalidated() && !reactorComputation.isStopped()
+                    && !reactorComputation.isQueued()) {
+                enqueue(reactorComputation);
+                queued = true;
+            }
+        }
+        mRunawaysDeferred.clear();
+        return queued;
+    }
+
+    /**
+     * Limits how often computations may rerun within one flush. A computation that invalidates
+     * itself, directly or through others, would otherwise loop forever.
+     *
+     * @param perComputation most reruns of one computation in one flush, at most 65534
+     * @param perFlush       most reruns of all computations in one flush
+     */
+    public void setRerunLimits(int perComputation, int perFlush) {
+        if (perComputation <= 0 || perComputation > MAX_RERUN_LIMIT || perFlush <= 0) {
+            throw new IllegalArgumentException("rerun limits out of range");
+        }
+        mRerunLimit = perComputation;
+        mFlushRerunLimit = perFlush;
+    }
+
+    /**
+     * @param policy what to do with a computation over the per computation limit. Over the per
+     *               flush limit the computation is always deferred.
+     */
+    public void setRunawayPolicy(ReactorRunawayPolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("policy == null");
+        }
+        mRunawayPolicy = policy;
+    }
+
+    /**
+     * @param listener told about each runaway with its cycle report, null to log them with the
+     *                 {@link ReactorLogger}
+     */
+    public void setRunawayListener(ReactorRunawayListener listener) {
+        mRunawayListener = listener;
+    }
+
+    /**
+     * Reruns a computation, handing an exception to the error handler so one failing
+     * computation doesn't abort the flush for the others
+     */
+    private void reComputeIsolated(ReactorComputation reactorComputation) {
+        try {
+            reactorComputation.reCompute();
+        } catch (RuntimeException e) {
+            handleError(reactorComputation, e);
+        }
+    }
+
+    private void handleError(ReactorComputation reactorComputation, Throwable error) {
+        if (mErrorHandler != null) {
+            mErrorHandler.onError(reactorComputation, error);
+        }
+        else if (reactorComputation != null) {
+            mLogger.log(TAG, "Exception from computation " + reactorComputation.getId(), error);
+        }
+        else {
+            mLogger.log(TAG, "Exception from afterFlush callback", error);
+        }
+    }
+
+    /**
+     * @param errorHandler receives exceptions thrown by computations and afterFlush callbacks
+     *                     during a flush, null to log them with the {@link ReactorLogger}
+     */
+    public void setErrorHandler(ReactorErrorHandler errorHandler) {
+        mErrorHandler = errorHandler;
+    }
+
+    /**
+     * Reruns every pending pure computation at the height of the head of the queue, then runs
+     * their transforms on {@link #mParallelExecutor} and the calling thread, and publishes the
+     * results on this thread in flush order.
+     */
+    private void runPureBatch() {
+        final int height = mPendingReactorComputations.peek().getQueuedHeight();
+        mCollectingPureTasks = true;
+        try {
+            ReactorComputation next = mPendingReactorComputations.peek();
+            while (next != null && next.isPure() && next.getQueuedHeight() == height) {
+                reComputeIsolated(pollPendingReactorComputation());
+                next = mPendingReactorComputations.peek();
+            }
+        } finally {
+            mCollectingPureTasks = false;
+        }
+
+        final int count = mPureTasks.size();
+        if (count == 0) {
+            return;
+        }
+
+        final CountDownLatch latch = new CountDownLatch(count);
+        for (int i = 0; i < count; i++) {
+            mPureTasks.get(i).mLatch = latch;
+        }
+        // this thread takes the first task instead of idling
+        for (int i = 1; i < count; i++) {
+            final ReactorPureTask<?, ?> task = mPureTasks.get(i);
+            try {
+                mParallelExecutor.execute(task);
+            } catch (RejectedExecutionException e) {
+                // a saturated or shut down executor still has to leave the latch counted down
+                task.run();
+            }
+        }
+        mPureTasks.get(0).run();
+
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        Error firstError = null;
+        try {
+            for (int i = 0; i < count; i++) {
+                final ReactorPureTask<?, ?> task = mPureTasks.get(i);
+                Throwable error;
+                try {
+                    error = task.finish();
+                } catch (RuntimeException e) {
+                    // publishing the result invalidated something that threw
+                    error = e;
+                }
+                if (error instanceof Error) {
+                    if (firstError == null) {
+                        firstError = (Error) error;
+                    }
+                }
+                else if (error != null) {
+                    handleError(task.mComputation, error);
+                }
+            }
+        } finally {
+            // a throwing callback mustn't leave the remaining tasks marked as collected
+            for (int i = 0; i < count; i++) {
+                mPureTasks.get(i).mCollected = false;
+            }
+            mPureTasks.clear();
+        }
+
+        if (firstError != null) {
+            throw firstError;
+        }
+    }
+
+    /**
+     * Sets the executor that runs the transforms of pure computations during a flush, for example
+     * a fork-join pool. Without one, pure computations run inline like any other computation.
+     * Transforms the executor rejects run inline on the flushing thread.
+     *
+     * @param executor executor for pure transforms, or null to run them inline
+     */
+    public void setParallelExecutor(Executor executor) {
+        mParallelExecutor = executor;
+    }
+
+    public Executor getParallelExecutor() {
+        return mParallelExecutor;
+    }
+
+    boolean isCollectingPureTasks() {
+        return mCollectingPureTasks;
+    }
+
+    void addPureTask(ReactorPureTask<?, ?> task) {
+        mPureTasks.add(task);
+    }
+
+    /**
+     * Delivers a pure result non-reactively, with writes counted as coming from the computation
+     */
+    <O> void publishPureResult(ReactorComputation reactorComputation, ReactorPureTask<?, O> task, O result) {
+        final ReactorComputation previous = mCurrentReactorComputation;
+        final int previousPublishHeight = mPublishHeight;
+        final int previousPublishSequence = mPublishSequence;
+        setCurrentReactorComputation(null);
+        mPublishHeight = reactorComputation.getHeight() + 1;
+        mPublishSequence = reactorComputation.getEnqueueSequence();
+        try {
+            task.deliver(result);
+        } finally {
+            mPublishHeight = previousPublishHeight;
+            mPublishSequence = previousPublishSequence;
+            setCurrentReactorComputation(previous);
+        }
+    }
+
+    /**
+     * @return height of a dependency changed right now
+     */
+    int getWriterHeight() {
+        return mActive ? mCurrentReactorComputation.getHeight() + 1 : mPublishHeight;
+    }
+
+    /**
+     * @return enqueue sequence of the computation changing a dependency right now, 0 outside of
+     * computations
+     */
+    int getWriterSequence() {
+        return mActive ? mCurrentReactorComputation.getEnqueueSequence() : mPublishSequence;
+    }
+
+    /**
+     * Limits how long a scheduled flush may run. Once the budget is used up the rest of
+     * the pending computations and flush callbacks are left in order and the flush continues
+     * on the next scheduler tick. Explicit calls to {@link #flush()} always drain everything.
+     * The budget is measured in real time with {@link System#nanoTime()}, not on the scheduler's
+     * clock, since it limits the work done per frame and a virtual clock doesn't move during a flush.
+     *
+     * @param budget budget for one flush slice, 0 for no limit
+     * @param unit   unit of the budget
+     */
+    public void setFlushBudget(long budget, TimeUnit unit) {
+        if (budget < 0) {
+            throw new IllegalArgumentException("budget < 0");
+        }
+        mFlushBudgetNanos = unit.toNanos(budget);
+    }
+
+    public long getFlushBudgetNanos() {
+        return mFlushBudgetNanos;
+    }
+
+    /**
+     * @return number of computations the last flush left for the next tick because it ran out of budget
+     */
+    public int getDeferredComputationCount() {
+        return mDeferredComputationCount;
+    }
+
     /**
      * Run a {@link io.dwak.reactor.interfaces.ReactorComputationFunction} now and rerun it later whenever its dependencies change.
      * Returns a {@link ReactorComputation} object that can be used to stop or observe the rerunning.
@@ -149,7 +1022,15 @@ public class Reactor {
      * @return the {@link ReactorComputation} reference
      */
     public ReactorComputation autoRun(ReactorComputationFunction function) {
-        final ReactorComputation trackerReactorComputation = new ReactorComputation(function, mCurrentReactorComputation);
+        final ReactorScope scope = mCurrentReactorComputation != null ? mCurrentReactorComputation.getScope() : null;
+        return autoRun(function, scope);
+    }
+
+    /**
+     * @param scope scope the computation and its nested computations belong to, or null
+     */
+    ReactorComputation autoRun(ReactorComputationFunction function, ReactorScope scope) {
+        final ReactorComputation trackerReactorComputation = new ReactorComputation(function, mCurrentReactorComputation, this, scope);
 
         if (mActive) {
             onInvalidate(new ReactorInvalidateCallback() {
@@ -163,6 +1044,29 @@ public class Reactor {
         return trackerReactorComputation;
     }
 
+    /**
+     * Like {@link #autoRun(ReactorComputationFunction)}, for derivations that are pure apart from
+     * publishing their result. The input is read reactively on this reactor's thread, the
+     * transform runs without access to reactive state, and the callback receives the result back
+     * on this reactor's thread. With a {@link #setParallelExecutor(Executor) parallel executor} a
+     * flush runs the transforms of independent pure computations in parallel and publishes the
+     * results in flush order, so the outcome doesn't depend on thread timing.
+     *
+     * @param input     reads the reactive data the transform needs
+     * @param transform side effect free function of the input, may run on another thread
+     * @param callback  receives each result on this reactor's thread
+     * @return the {@link ReactorComputation} reference
+     */
+    public <I, O> ReactorComputation autoRunPure(ReactorComputedFunction<I> input,
+                                                 ReactorPureFunction<I, O> transform,
+                                                 ReactorResultCallback<O> callback) {
+        final ReactorPureTask<I, O> task = new ReactorPureTask<I, O>(this, input, transform, callback);
+        final ReactorComputation reactorComputation = autoRun(task);
+        task.mComputation = reactorComputation;
+        reactorComputation.setPure(true);
+        return reactorComputation;
+    }
+
     /**
      * Run a function without tracking dependencies.
      *
@@ -180,6 +1084,27 @@ public class Reactor {
         }
     }
 
+    /**
+     * Stops tracking dependencies until {@link #endNonReactive(ReactorComputation)}, for code that calls user
+     * functions too often to allocate a function for {@link #nonReactive(ReactorComputationFunction)} each time.
+     *
+     * @return the computation to hand back to endNonReactive
+     */
+    public ReactorComputation beginNonReactive() {
+        final ReactorComputation previous = getCurrentReactorComputation();
+        setCurrentReactorComputation(null);
+        return previous;
+    }
+
+    /**
+     * Resumes tracking after {@link #beginNonReactive()}, normally in a finally block
+     *
+     * @param previous the computation returned by beginNonReactive
+     */
+    public void endNonReactive(ReactorComputation previous) {
+        setCurrentReactorComputation(previous);
+    }
+
     /**
      * Registers a new {@link ReactorComputationFunction} react on the current computation (which must exist),
      * to be called immediately when the current computation is invalidated or stopped.
@@ -194,11 +1119,47 @@ public class Reactor {
         mCurrentReactorComputation.addInvalidateComputationFunction(function);
     }
 
+    /**
+     * Runs the callback in the {@link ReactorFlushPhase#COMPUTE} phase of the next flush
+     */
     public void afterFlush(ReactorFlushCallback function) {
-        mFlushCallbacks.add(function);
+        afterFlush(ReactorFlushPhase.COMPUTE, function);
+    }
+
+    /**
+     * Runs the callback in a phase of the next flush, after computations have settled and
+     * callbacks of earlier phases have run. Callbacks of one phase run in the order they were added.
+     *
+     * @param phase    phase to run the callback in
+     * @param function the callback
+     */
+    public void afterFlush(ReactorFlushPhase phase, ReactorFlushCallback function) {
+        mFlushCallbacks.get(phase.ordinal()).add(function);
+        mFlushCallbackCount++;
         requireFlush();
     }
 
+    @SuppressWarnings("unchecked")
+    private static ArrayList<ArrayDeque<ReactorFlushCallback>> newFlushCallbackQueues() {
+        final int phases = ReactorFlushPhase.values().length;
+        final ArrayList<ArrayDeque<ReactorFlushCallback>> queues = new ArrayList<ArrayDeque<ReactorFlushCallback>>(phases);
+        for (int i = 0; i < phases; i++) {
+            queues.add(new ArrayDeque<ReactorFlushCallback>());
+        }
+        return queues;
+    }
+
+    private ReactorFlushCallback pollFlushCallback() {
+        for (int i = 0; i < mFlushCallbacks.size(); i++) {
+            final ReactorFlushCallback function = mFlushCallbacks.get(i).poll();
+            if (function != null) {
+                mFlushCallbackCount--;
+                return function;
+            }
+        }
+        return null;
+    }
+
     ReactorComputation getCurrentReactorComputation() {
         return mCurrentReactorComputation;
     }
@@ -208,10 +1169,133 @@ public class Reactor {
         mActive = currentReactorComputation != null;
     }
 
-    ArrayDeque<ReactorComputation> getPendingReactorComputations() {
+    /**
+     * Queues an invalidated computation. One still queued because a read brought it up to date
+     * early keeps its entry, which is taken out and added back if its height changed, since the
+     * key of an entry in the heap must never change.
+     */
+    void enqueue(ReactorComputation reactorComputation) {
+        final int height = reactorComputation.getHeight();
+        if (reactorComputation.isQueued()) {
+            if (reactorComputation.getQueuedHeight() == height) {
+                return;
+            }
+            mPendingReactorComputations.remove(reactorComputation);
+            reactorComputation.setQueuedHeight(height);
+            mPendingReactorComputations.add(reactorComputation);
+            return;
+        }
+
+        reactorComputation.setQueuedHeight(height);
+        reactorComputation.setQueued(true);
+        reactorComputation.setEnqueueSequence(++mEnqueueSequence);
+        reactorComputation.setRerunSaved(false);
+        mPendingReactorComputations.add(reactorComputation);
+    }
+
+    private ReactorComputation pollPendingReactorComputation() {
+        final ReactorComputation next = mPendingReactorComputations.poll();
+        next.setQueued(false);
+        return next;
+    }
+
+    /**
+     * Called when a rerun reads a dependency last changed by a computation that was queued after
+     * it. A FIFO flush would have run this computation before that one, and again once that one
+     * changed its input, so height ordering saved a rerun. Counted once per time it was queued.
+     */
+    void recordRedundantRecomputeAvoided(ReactorComputation reactorComputation) {
+        if (!reactorComputation.isRerunSaved()) {
+            reactorComputation.setRerunSaved(true);
+            mRedundantRecomputesAvoided++;
+        }
+    }
+
+    ReactorEdge obtainEdge() {
+        final ReactorEdge edge = mEdgePool;
+        if (edge == null) {
+            return new ReactorEdge();
+        }
+        mEdgePool = edge.mNextEdge;
+        mEdgePoolSize--;
+        if (mEdgePoolSize < mEdgePoolLowWater) {
+            mEdgePoolLowWater = mEdgePoolSize;
+        }
+        edge.mNextEdge = null;
+        return edge;
+    }
+
+    void recycleEdge(ReactorEdge edge) {
+        edge.mComputation = null;
+        edge.mDependency = null;
+        edge.mPrevDependent = null;
+        edge.mNextDependent = null;
+        edge.mNextEdge = mEdgePool;
+        mEdgePool = edge;
+        mEdgePoolSize++;
+    }
+
+    /**
+     * Releases half of the edges that stayed pooled since the last trim. The pool grows to the most
+     * edges released at once, so rerunning a large graph doesn't allocate, and shrinks over the
+     * following flushes once the graph does.
+     */
+    private void trimEdgePool() {
+        int release = mEdgePoolLowWater / 2;
+        mEdgePoolSize -= release;
+        while (release-- > 0) {
+            final ReactorEdge edge = mEdgePool;
+            mEdgePool = edge.mNextEdge;
+            edge.mNextEdge = null;
+        }
+        mEdgePoolLowWater = mEdgePoolSize;
+    }
+
+    /**
+     * Reserves room for a fan-out snapshot on top of {@link #mFanOutScratch}
+     *
+     * @return index of the first reserved slot
+     */
+    int reserveFanOut(int count) {
+        final int base = mFanOutTop;
+        if (base + count > mFanOutScratch.length) {
+            final ReactorComputation[] grown = new ReactorComputation[Math.max(mFanOutScratch.length * 2, base + count)];
+            System.arraycopy(mFanOutScratch, 0, grown, 0, base);
+            mFanOutScratch = grown;
+        }
+        mFanOutTop = base + count;
+        return base;
+    }
+
+    ReactorComputation[] getFanOutScratch() {
+        return mFanOutScratch;
+    }
+
+    void releaseFanOut(int base, int count) {
+        Arrays.fill(mFanOutScratch, base, base + count, null);
+        mFanOutTop = base;
+    }
+
+    PriorityQueue<ReactorComputation> getPendingReactorComputations() {
         return mPendingReactorComputations;
     }
 
+    /**
+     * @return number of pending computations that height ordering ran after a computation that
+     * was queued later and changed their inputs, where a FIFO flush would have run them early
+     * against stale inputs and then again
+     */
+    public long getRedundantRecomputesAvoided() {
+        return mRedundantRecomputesAvoided;
+    }
+
+    /**
+     * @return true if there is a current computation, so reactive data sources are being tracked
+     */
+    public boolean isActive() {
+        return mActive;
+    }
+
     public boolean isInCompute() {
         return mInCompute;
     }
@@ -221,12 +1305,62 @@ public class Reactor {
     }
 
 
+    /**
+     * Turns tracing on with a {@link ReactorTracer} of the default capacity, or off
+     */
     public void setShouldLog(boolean shouldLog) {
-        mShouldLog = shouldLog;
+        if (!shouldLog) {
+            mTracer = null;
+        }
+        else if (mTracer == null) {
+            mTracer = new ReactorTracer();
+        }
+    }
+
+    /**
+     * @param tracer tracer recording this reactor's work, or null to stop tracing
+     */
+    public void setTracer(ReactorTracer tracer) {
+        mTracer = tracer;
+    }
+
+    /**
+     * @return the tracer, or null when tracing is off
+     */
+    public ReactorTracer getTracer() {
+        return mTracer;
     }
 
-    boolean shouldLog() {
-        return mShouldLog;
+    /**
+     * @param metrics metrics recording this reactor's work, or null to stop recording
+     */
+    public void setMetrics(ReactorMetrics metrics) {
+        mMetrics = metrics;
+    }
+
+    /**
+     * @return the metrics, or null when they are off
+     */
+    public ReactorMetrics getMetrics() {
+        return mMetrics;
+    }
+
+    void recordSuppressedWrite() {
+        if (mMetrics != null) {
+            mMetrics.recordSuppressedWrite();
+        }
+    }
+
+    void recordUnchangedResult() {
+        if (mMetrics != null) {
+            mMetrics.recordUnchangedResult();
+        }
+    }
+
+    void recordParkedRerun() {
+        if (mMetrics != null) {
+            mMetrics.recordParkedRerun();
+        }
     }
 
 }
@@ -0,0 +1,160 @@
+package io.dwak.reactor;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * Reactive boolean that is stored unboxed, so reads and writes don't allocate.
+ * Writing the current value again doesn't invalidate dependents.
+ */
+public class ReactorBooleanVar extends ReactorPendingWrite {
+    private static final AtomicIntegerFieldUpdater<ReactorBooleanVar> HAS_PENDING_VALUE =
+            AtomicIntegerFieldUpdater.newUpdater(ReactorBooleanVar.class, "mHasPendingValue");
+
+    private boolean mValue;
+    private ReactorDependency mDependency = new ReactorDependency();
+
+    /**
+     * Number of writes dropped because the value didn't change
+     */
+    private long mSuppressedWriteCount;
+
+    /**
+     * Reactor whose owner thread applies this var's writes
+     */
+    private final Reactor mReactor;
+
+    /**
+     * Latest value written from another thread, valid while {@link #mHasPendingValue} is 1
+     */
+    private volatile boolean mPendingValue;
+    private volatile int mHasPendingValue;
+
+    public ReactorBooleanVar() {
+        mReactor = Reactor.getInstance();
+    }
+
+    public ReactorBooleanVar(boolean value) {
+        mValue = value;
+        mReactor = Reactor.getInstance();
+    }
+
+    /**
+     * Unbind and null out the object's {@link ReactorDependency}
+     */
+    public void unbindDependency() {
+        if (mDependency != null) {
+            mDependency.unbind();
+            mDependency = null;
+        }
+    }
+
+    /**
+     * Gets the value, and adds a dependency
+     * @return Value that this ReactorBooleanVar contains
+     */
+    public boolean getValue() {
+        if (mDependency == null)
+            mDependency = new ReactorDependency();
+
+        mDependency.depend();
+        return mValue;
+    }
+
+    /**
+     * Sets the contained value and marks the dependency as changed.
+     * Does nothing if the value is the current one.
+     * Called off the reactor's owner thread this is {@link #postValue(boolean)}.
+     * @param value Value to set
+     */
+    public void setValue(boolean value) {
+        if (!mReactor.isOwnerThread()) {
+            postValue(value);
+            return;
+        }
+
+        if (value == mValue) {
+            mSuppressedWriteCount++;
+            mReactor.recordSuppressedWrite();
+            if (mDependency != null) {
+                mDependency.unchanged();
+            }
+            return;
+        }
+
+        mValue = value;
+        if (mDependency == null)
+            mDependency = new ReactorDependency();
+
+        mDependency.changed();
+    }
+
+    /**
+     * Flips the value. Only allowed on the reactor's owner thread: another thread would flip a
+     * value that may already be stale, so it has to post the value it wants instead.
+     * @throws IllegalStateException if called off the owner thread
+     */
+    public void toggle() {
+        if (!mReactor.isOwnerThread()) {
+            throw new IllegalStateException("ReactorBooleanVar.toggle off the owner thread, use postValue");
+        }
+        setValue(!mValue);
+    }
+
+    /**
+     * Sets the value from any thread. The write is applied on the reactor's owner thread at the
+     * next flush; writes posted before then are coalesced and only the last one is applied.
+     * @param value Value to set
+     */
+    public void postValue(boolean value) {
+        mPendingValue = value;
+        if (HAS_PENDING_VALUE.compareAndSet(this, 0, 1)) {
+            mReactor.postWrite(this);
+        }
+    }
+
+    /**
+     * Applies the value posted with postValue. Called by the reactor on its owner thread.
+     */
+    @Override
+    void applyPendingWrite() {
+        // clear the flag before reading, so a value posted in between queues another write
+        HAS_PENDING_VALUE.set(this, 0);
+        setValue(mPendingValue);
+    }
+
+    /**
+     * Gets the contained value without creating a dependency
+     * @return The contained value
+     */
+    public boolean getRawValue() {
+        return mValue;
+    }
+
+    /**
+     * Sets the value without changing the {@link ReactorDependency}
+     * @param value Value to set
+     */
+    public void setRawValue(boolean value) {
+        mValue = value;
+    }
+
+    /**
+     * @return number of {@link #setValue(boolean)} calls dropped because the value didn't change
+     */
+    public long getSuppressedWriteCount() {
+        return mSuppressedWriteCount;
+    }
+
+    public ReactorDependency getDependency() {
+        return mDependency;
+    }
+
+    public void setDependency(ReactorDependency dependency) {
+        mDependency = dependency;
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(mValue);
+    }
+}
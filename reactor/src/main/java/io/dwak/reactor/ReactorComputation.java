@@ -1,7 +1,5 @@
 package io.dwak.reactor;
 
-import android.util.Log;
-
 import java.util.ArrayList;
 
 import io.dwak.reactor.interfaces.ReactorComputationFunction;
@@ -21,9 +19,14 @@ public class ReactorComputation {
     private final int mId;
 
     /**
-     * Collection of callbacks to run on invalidation
+     * Reactor domain this computation belongs to
+     */
+    private final Reactor mReactor;
+
+    /**
+     * Collection of callbacks to run on invalidation, created on first use
      */
-    private final ArrayList<ReactorInvalidateCallback> mInvalidateCallbacks;
+    private ArrayList<ReactorInvalidateCallback> mInvalidateCallbacks;
 
     /**
      * Possible parent computation for nested computations
@@ -36,53 +39,112 @@ public class ReactorComputation {
     private final ReactorComputationFunction mFunction;
 
     /**
-     * true if this computation has been stopped
+     * Set once this computation has been stopped
+     */
+    private static final int STOPPED = 1;
+
+    /**
+     * Set if this computation has been invalidated or stopped
+     */
+    private static final int INVALIDATED = 1 << 1;
+
+    /**
+     * Set while the computation is recomputing
+     */
+    private static final int RECOMPUTING = 1 << 2;
+
+    /**
+     * Set during the initial run of the computation at the time {@link Reactor#autoRun(ReactorComputationFunction)}
+     * is called, and clear on subsequent reruns and at other times.
+     */
+    private static final int FIRST_RUN = 1 << 3;
+
+    /**
+     * Set if the computation has errored
+     */
+    private static final int ERRORED = 1 << 4;
+
+    /**
+     * Set while the computation is in the process of being constructed
+     */
+    private static final int CONSTRUCTING = 1 << 5;
+
+    /**
+     * Set while this computation is in the pending queue
+     */
+    private static final int QUEUED = 1 << 6;
+
+    /**
+     * Set once a rerun saved by height ordering has been counted since this computation was queued
+     */
+    private static final int RERUN_SAVED = 1 << 7;
+
+    /**
+     * Set if this computation was created by {@link Reactor#autoRunPure}
      */
-    private boolean mStopped;
+    private static final int PURE = 1 << 8;
 
     /**
-     * true if this computation has been invalidated or stopped
+     * State flags packed into one field, so a large graph doesn't pay a padded field per flag
      */
-    private boolean mInvalidated;
+    private int mFlags;
 
     /**
-     * True if the computation is recomputing
+     * Dependency height: one more than the height of whatever wrote the dependencies read by
+     * the last run, 0 if they were only written outside of computations
      */
-    private boolean mRecomputing;
+    private int mHeight;
 
     /**
-     * True during the initial run of the computation at the time {@link Reactor#autoRun(ReactorComputationFunction)}
-     * is called, and false on subsequent reruns and at other times.
+     * Height this computation was queued with, so the pending queue stays ordered if it changes
      */
-    private boolean mFirstRun;
+    private int mQueuedHeight;
 
     /**
-     * True if the computation has errored
+     * When this computation was last queued, from {@link Reactor}'s count of enqueues, 0 if never
      */
-    private boolean mErrored;
+    private int mEnqueueSequence;
 
     /**
-     * True if the computation is in the process of being constructed
+     * Edges to the dependencies this computation read since it last became valid
      */
-    private boolean mConstructingComputation = false;
+    private ReactorEdge mFirstEdge;
 
-    ReactorComputation(ReactorComputationFunction function, ReactorComputation parent) {
-        mStopped = false;
-        mInvalidated = false;
-        mId = Reactor.nextId++;
-        mInvalidateCallbacks = new ArrayList<ReactorInvalidateCallback>();
-        mFirstRun = true;
+    /**
+     * Number of times this computation has started computing
+     */
+    private int mRunCount;
+
+    /**
+     * Reruns in the current flush in the low 16 bits, the flush they were counted in above them
+     */
+    private int mFlushRuns;
+
+    /**
+     * Metrics of this computation, created when {@link ReactorMetrics} first records it
+     */
+    private ReactorNodeStats mStats;
+
+    /**
+     * Scope that can pause this computation, null if it has none
+     */
+    private final ReactorScope mScope;
+
+    ReactorComputation(ReactorComputationFunction function, ReactorComputation parent, Reactor reactor, ReactorScope scope) {
+        mScope = scope;
+        mId = Reactor.nextComputationId();
+        mReactor = reactor;
+        setFlag(FIRST_RUN, true);
         mParent = parent;
         mFunction = function;
-        mRecomputing = false;
-        mErrored = true;
+        setFlag(ERRORED, true);
 
         try {
             compute();
-            mErrored = false;
+            setFlag(ERRORED, false);
         } finally {
-            mFirstRun = false;
-            if (mErrored) {
+            setFlag(FIRST_RUN, false);
+            if (hasFlag(ERRORED)) {
                 stop();
             }
 
@@ -93,9 +155,13 @@ public class ReactorComputation {
      * Prevents this computation from rerunning.
      */
     public void stop() {
-        if (!mStopped) {
-            mStopped = true;
+        if (!hasFlag(STOPPED)) {
+            setFlag(STOPPED, true);
             invalidate();
+            if (mStats != null) {
+                mStats.mMetrics.retire(this);
+                mStats = null;
+            }
         }
     }
 
@@ -103,27 +169,55 @@ public class ReactorComputation {
      * Invalidates this computation so that it will be rerun.
      */
     public void invalidate() {
-        if (!mInvalidated) {
+        if (!hasFlag(INVALIDATED)) {
             // if we're currently in _recompute(), don't enqueue
             // ourselves, since we'll rerun immediately anyway.
-            if (!mRecomputing && !mStopped) {
-                Reactor.getInstance().requireFlush();
-                Reactor.getInstance().getPendingReactorComputations().add(this);
+            if (!hasFlag(RECOMPUTING) && !hasFlag(STOPPED)) {
+                mReactor.requireFlush();
+                mReactor.enqueue(this);
             }
 
-            mInvalidated = true;
+            setFlag(INVALIDATED, true);
+            removeEdges();
+            final ReactorTracer tracer = mReactor.getTracer();
+            if (tracer != null) {
+                tracer.record(ReactorTracer.INVALIDATE, mId, 0);
+            }
 
-            // callbacks can't add callbacks, because
-            // self.invalidated === true.
-            for (final ReactorInvalidateCallback invalidateCallback : mInvalidateCallbacks) {
-                Reactor.getInstance().nonReactive(new ReactorComputationFunction() {
-                    @Override
-                    public void react(ReactorComputation reactorComputation) {
-                        invalidateCallback.onInvalidate();
+            if (mInvalidateCallbacks != null && !mInvalidateCallbacks.isEmpty()) {
+                // run the callbacks non-reactively, without wrapping each one in a function
+                final ReactorComputation previous = mReactor.getCurrentReactorComputation();
+                mReactor.setCurrentReactorComputation(null);
+                try {
+                    // callbacks can't add callbacks, because
+                    // self.invalidated === true.
+                    for (int i = 0; i < mInvalidateCallbacks.size(); i++) {
+                        mInvalidateCallbacks.get(i).onInvalidate();
                     }
-                });
+                } finally {
+                    mReactor.setCurrentReactorComputation(previous);
+                }
+                mInvalidateCallbacks.clear();
             }
-            mInvalidateCallbacks.clear();
+        }
+    }
+
+    void addEdge(ReactorEdge edge) {
+        edge.mNextEdge = mFirstEdge;
+        mFirstEdge = edge;
+    }
+
+    /**
+     * Unlinks this computation from every dependency it read and returns the edges to the pool
+     */
+    private void removeEdges() {
+        ReactorEdge edge = mFirstEdge;
+        mFirstEdge = null;
+        while (edge != null) {
+            final ReactorEdge next = edge.mNextEdge;
+            edge.mDependency.removeEdge(edge);
+            mReactor.recycleEdge(edge);
+            edge = next;
         }
     }
 
@@ -138,70 +232,98 @@ public class ReactorComputation {
      * @return ReactorComputation with the added invalidation callback
      */
     public ReactorComputation addInvalidateComputationFunction(ReactorInvalidateCallback callback) {
+        if (mInvalidateCallbacks == null) {
+            mInvalidateCallbacks = new ArrayList<ReactorInvalidateCallback>(2);
+        }
         mInvalidateCallbacks.add(callback);
 
         return this;
     }
 
     private void compute() {
-        mInvalidated = false;
-        final ReactorComputation previousReactorComputation = Reactor.getInstance().getCurrentReactorComputation();
-        Reactor.getInstance().setCurrentReactorComputation(this);
-        boolean previousInCompute = Reactor.getInstance().isInCompute();
-        Reactor.getInstance().setInCompute(true);
+        setFlag(INVALIDATED, false);
+        mHeight = 0;
+        mRunCount++;
+        final ReactorTracer tracer = mReactor.getTracer();
+        if (tracer != null) {
+            tracer.record(ReactorTracer.COMPUTE_START, mId, 0);
+        }
+        final ReactorMetrics metrics = mReactor.getMetrics();
+        final long startNanos = metrics != null ? System.nanoTime() : 0;
+        final Reactor previousReactor = Reactor.swapThreadReactor(mReactor);
+        final ReactorComputation previousReactorComputation = mReactor.getCurrentReactorComputation();
+        mReactor.setCurrentReactorComputation(this);
+        boolean previousInCompute = mReactor.isInCompute();
+        mReactor.setInCompute(true);
         try {
             mFunction.react(this);
         }
         finally {
-            Reactor.getInstance().setCurrentReactorComputation(previousReactorComputation);
-            Reactor.getInstance().setInCompute(previousInCompute);
-        }
-
-        if (Reactor.getInstance().shouldLog()) {
-            Log.d(TAG, this.toString());
+            mReactor.setCurrentReactorComputation(previousReactorComputation);
+            mReactor.setInCompute(previousInCompute);
+            Reactor.restoreThreadReactor(previousReactor);
+            if (tracer != null) {
+                tracer.record(ReactorTracer.COMPUTE_END, mId, 0);
+            }
+            if (metrics != null) {
+                metrics.recordCompute(this, System.nanoTime() - startNanos);
+            }
         }
     }
 
     void reCompute() {
-        mRecomputing = true;
+        if (mScope != null && mScope.isPaused()) {
+            // stays invalidated, the scope queues it again once it resumes
+            mScope.park(this);
+            mReactor.recordParkedRerun();
+            return;
+        }
+
+        setFlag(RECOMPUTING, true);
         try {
-            while (mInvalidated && !mStopped) {
-                try {
-                    compute();
-                } catch (Exception e) {
-                    throw e;
+            while (hasFlag(INVALIDATED) && !hasFlag(STOPPED)) {
+                // a computation that keeps invalidating itself is caught by the rerun limits
+                if (!mReactor.allowRerun(this)) {
+                    break;
                 }
+                compute();
                 // If _compute() invalidated us, we run again immediately.
-                // A computation that invalidates itself indefinitely is an
-                // infinite loop, of course.
-                //
-                // We could put an iteration counter here and catch run-away
-                // loops.
             }
         } finally {
-            mRecomputing = false;
+            setFlag(RECOMPUTING, false);
         }
 
     }
 
     public boolean isStopped() {
-        return mStopped;
+        return hasFlag(STOPPED);
     }
 
     public boolean isInvalidated() {
-        return mInvalidated;
+        return hasFlag(INVALIDATED);
     }
 
     public boolean isErrored() {
-        return mErrored;
+        return hasFlag(ERRORED);
     }
 
     public boolean isRecomputing() {
-        return mRecomputing;
+        return hasFlag(RECOMPUTING);
     }
 
     public boolean isConstructingComputation() {
-        return mConstructingComputation;
+        return hasFlag(CONSTRUCTING);
+    }
+
+    /**
+     * @return scope this computation belongs to, or null
+     */
+    public ReactorScope getScope() {
+        return mScope;
+    }
+
+    public Reactor getReactor() {
+        return mReactor;
     }
 
     public ReactorComputation getParent() {
@@ -209,12 +331,104 @@ public class ReactorComputation {
     }
 
 
+    /**
+     * @return number of reruns in the flush, counting this one
+     */
+    int countFlushRun(int flushSequence) {
+        final int tag = flushSequence & 0xFFFF;
+        if (mFlushRuns >>> 16 != tag) {
+            mFlushRuns = tag << 16;
+        }
+        if ((mFlushRuns & 0xFFFF) != 0xFFFF) {
+            mFlushRuns++;
+        }
+        return mFlushRuns & 0xFFFF;
+    }
+
+    ReactorNodeStats getStats() {
+        return mStats;
+    }
+
+    void setStats(ReactorNodeStats stats) {
+        mStats = stats;
+    }
+
     public int getId() {
         return mId;
     }
 
     public boolean isFirstRun() {
-        return mFirstRun;
+        return hasFlag(FIRST_RUN);
+    }
+
+    public boolean isPure() {
+        return hasFlag(PURE);
+    }
+
+    void setPure(boolean pure) {
+        setFlag(PURE, pure);
+    }
+
+    int getRunCount() {
+        return mRunCount;
+    }
+
+    public int getHeight() {
+        return mHeight;
+    }
+
+    /**
+     * Makes this computation at least as high as the given height
+     */
+    void raiseHeight(int height) {
+        if (height > mHeight) {
+            mHeight = height;
+        }
+    }
+
+    int getQueuedHeight() {
+        return mQueuedHeight;
+    }
+
+    void setQueuedHeight(int queuedHeight) {
+        mQueuedHeight = queuedHeight;
+    }
+
+    boolean isQueued() {
+        return hasFlag(QUEUED);
+    }
+
+    void setQueued(boolean queued) {
+        setFlag(QUEUED, queued);
+    }
+
+    int getEnqueueSequence() {
+        return mEnqueueSequence;
+    }
+
+    void setEnqueueSequence(int enqueueSequence) {
+        mEnqueueSequence = enqueueSequence;
+    }
+
+    boolean isRerunSaved() {
+        return hasFlag(RERUN_SAVED);
+    }
+
+    void setRerunSaved(boolean rerunSaved) {
+        setFlag(RERUN_SAVED, rerunSaved);
+    }
+
+    private boolean hasFlag(int flag) {
+        return (mFlags & flag) != 0;
+    }
+
+    private void setFlag(int flag, boolean value) {
+        if (value) {
+            mFlags |= flag;
+        }
+        else {
+            mFlags &= ~flag;
+        }
     }
 
     @Override
@@ -224,13 +438,12 @@ public class ReactorComputation {
                 ", mInvalidateCallbacks=" + mInvalidateCallbacks +
                 ", mParent=" + mParent +
                 ", mFunction=" + mFunction +
-                ", mStopped=" + mStopped +
-                ", mInvalidated=" + mInvalidated +
-                ", mRecomputing=" + mRecomputing +
-                ", mFirstRun=" + mFirstRun +
-                ", mErrored=" + mErrored +
-                ", mConstructingComputation=" + mConstructingComputation +
-                ", Created at: " + Thread.currentThread().getStackTrace()[7].toString() +
+                ", mStopped=" + hasFlag(STOPPED) +
+                ", mInvalidated=" + hasFlag(INVALIDATED) +
+                ", mRecomputing=" + hasFlag(RECOMPUTING) +
+                ", mFirstRun=" + hasFlag(FIRST_RUN) +
+                ", mErrored=" + hasFlag(ERRORED) +
+                ", mConstructingComputation=" + hasFlag(CONSTRUCTING) +
                 "}";
     }
 }
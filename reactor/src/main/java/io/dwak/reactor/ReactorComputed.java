@@ -0,0 +1,232 @@
+package io.dwak.reactor;
+
+import io.dwak.reactor.interfaces.ReactorComputationFunction;
+import io.dwak.reactor.interfaces.ReactorComputedFunction;
+import io.dwak.reactor.interfaces.ReactorEquivalence;
+import io.dwak.reactor.interfaces.ReactorFlushCallback;
+
+/**
+ * A value derived from reactive data sources. The result is cached and recomputed when the
+ * sources it read change, and computations that read it are only invalidated when the new
+ * result isn't equivalent to the cached one.
+ * <p>
+ * The underlying {@link ReactorComputation} has no parent, so a ReactorComputed created inside
+ * {@link Reactor#autoRun(ReactorComputationFunction)} outlives that run. Call {@link #stop()}
+ * when it is no longer needed.
+ * <p>
+ * A computed value created with {@link #lazy(ReactorComputedFunction)} only computes when it is
+ * read, and stops following its sources once no computation depends on it, see the method.
+ */
+public class ReactorComputed<T> {
+    private final ReactorComputedFunction<T> mFunction;
+    private final ReactorEquivalence<? super T> mEquivalence;
+    private final ReactorDependency mDependency;
+
+    /**
+     * Follows the sources, null while a lazy computed value is disconnected
+     */
+    private ReactorComputation mComputation;
+    private T mValue;
+
+    /**
+     * Disconnects a lazy computed value if it is still unobserved once the flush settles, null when eager
+     */
+    private final ReactorFlushCallback mDisconnectCheck;
+    private boolean mDisconnectPending;
+    private boolean mStopped;
+
+    /**
+     * Follows a source, invalidating dependents only when its value is no longer equivalent to
+     * the previous one. This is what every ReactorComputed does, the name makes the intent clear
+     * next to {@link ReactorTimedValue}.
+     *
+     * @param source      source to follow
+     * @param equivalence decides if a new value is the same as the previous one
+     */
+    public static <T> ReactorComputed<T> distinctUntilChanged(ReactorComputedFunction<T> source,
+                                                              ReactorEquivalence<? super T> equivalence) {
+        return new ReactorComputed<T>(source, equivalence);
+    }
+
+    /**
+     * Like {@link #distinctUntilChanged(ReactorComputedFunction, ReactorEquivalence)}, comparing
+     * with {@link Object#equals(Object)}
+     */
+    public static <T> ReactorComputed<T> distinctUntilChanged(ReactorComputedFunction<T> source) {
+        return new ReactorComputed<T>(source);
+    }
+
+    /**
+     * Creates a computed value that only computes when it is read. While computations depend on it,
+     * it follows its sources like any ReactorComputed. Once the last one is gone and the flush has
+     * settled, it stops its computation and so stops recomputing on upstream changes, until it is
+     * read from a computation again. Reads outside of a computation while disconnected compute the
+     * value without subscribing to the sources.
+     *
+     * @param function    function computing the value
+     * @param equivalence decides if a new result is the same as the cached one
+     */
+    public static <T> ReactorComputed<T> lazy(ReactorComputedFunction<T> function,
+                                              ReactorEquivalence<? super T> equivalence) {
+        return new ReactorComputed<T>(function, equivalence, true);
+    }
+
+    /**
+     * Like {@link #lazy(ReactorComputedFunction, ReactorEquivalence)}, comparing with {@link Object#equals(Object)}
+     */
+    public static <T> ReactorComputed<T> lazy(ReactorComputedFunction<T> function) {
+        return new ReactorComputed<T>(function, ReactorEquivalences.<T>equality(), true);
+    }
+
+    /**
+     * Creates a computed value whose dependents are invalidated when the result stops being
+     * {@link Object#equals(Object)} to the previous one
+     *
+     * @param function function computing the value
+     */
+    public ReactorComputed(ReactorComputedFunction<T> function) {
+        this(function, ReactorEquivalences.<T>equality());
+    }
+
+    /**
+     * @param function    function computing the value
+     * @param equivalence decides if a new result is the same as the cached one
+     */
+    public ReactorComputed(ReactorComputedFunction<T> function, ReactorEquivalence<? super T> equivalence) {
+        this(function, equivalence, false);
+    }
+
+    private ReactorComputed(ReactorComputedFunction<T> function, ReactorEquivalence<? super T> equivalence, boolean lazy) {
+        mFunction = function;
+        mEquivalence = equivalence;
+
+        if (lazy) {
+            mDependency = new ReactorDependency() {
+                @Override
+                void onLastDependantRemoved() {
+                    scheduleDisconnect();
+                }
+            };
+            mDisconnectCheck = new ReactorFlushCallback() {
+                @Override
+                public void onFlush() {
+                    mDisconnectPending = false;
+                    // a dependant that reran in this flush has read the value again
+                    if (mComputation != null && !mDependency.hasDependants()) {
+                        mComputation.stop();
+                        mComputation = null;
+                    }
+                }
+            };
+        }
+        else {
+            mDependency = new ReactorDependency();
+            mDisconnectCheck = null;
+            connect();
+        }
+    }
+
+    private void connect() {
+        final Reactor reactor = Reactor.getInstance();
+        final ReactorComputation previous = reactor.getCurrentReactorComputation();
+        reactor.setCurrentReactorComputation(null);
+        try {
+            mComputation = reactor.autoRun(new ReactorComputationFunction() {
+                @Override
+                public void react(ReactorComputation reactorComputation) {
+                    update(reactorComputation);
+                }
+            });
+        } finally {
+            reactor.setCurrentReactorComputation(previous);
+        }
+    }
+
+    /**
+     * Waits for the flush to settle before disconnecting, since the dependant that was just
+     * invalidated usually reads the value again when it reruns
+     */
+    private void scheduleDisconnect() {
+        if (mComputation == null || mDisconnectPending || mStopped) {
+            return;
+        }
+        mDisconnectPending = true;
+        Reactor.getInstance().afterFlush(mDisconnectCheck);
+    }
+
+    private void update(ReactorComputation reactorComputation) {
+        final T value = mFunction.compute();
+        if (reactorComputation.isFirstRun()) {
+            mValue = value;
+            mDependency.unchanged();
+        }
+        else if (!mEquivalence.equivalent(mValue, value)) {
+            mValue = value;
+            mDependency.changed();
+        }
+        else {
+            reactorComputation.getReactor().recordUnchangedResult();
+            mDependency.unchanged();
+        }
+    }
+
+    /**
+     * Gets the value, and adds a dependency. If the sources changed since the last computation
+     * the value is brought up to date first, so it is never stale.
+     *
+     * @return the computed value
+     */
+    public T getValue() {
+        if (mComputation == null) {
+            if (!mStopped) {
+                if (!Reactor.getInstance().isActive()) {
+                    // nothing will be told when the sources change, so don't subscribe to them
+                    mValue = mFunction.compute();
+                    return mValue;
+                }
+                connect();
+            }
+        }
+        else if (mComputation.isInvalidated() && !mComputation.isStopped() && !mComputation.isRecomputing()) {
+            mComputation.getReactor().reComputeForRead(mComputation);
+        }
+
+        mDependency.depend();
+        return mValue;
+    }
+
+    /**
+     * Gets the cached value without creating a dependency or recomputing. A disconnected lazy
+     * computed value returns the value it last computed, which may be stale.
+     *
+     * @return the cached value
+     */
+    public T getRawValue() {
+        return mValue;
+    }
+
+    /**
+     * Stops recomputing. The last value stays readable.
+     */
+    public void stop() {
+        mStopped = true;
+        if (mComputation != null) {
+            mComputation.stop();
+        }
+    }
+
+    public boolean isStopped() {
+        return mStopped || (mComputation != null && mComputation.isStopped());
+    }
+
+    /**
+     * @return true if this follows its sources, false for a lazy computed value that is disconnected
+     */
+    public boolean isConnected() {
+        return mComputation != null && !mComputation.isStopped();
+    }
+
+    public ReactorDependency getDependency() {
+        return mDependency;
+    }
+}
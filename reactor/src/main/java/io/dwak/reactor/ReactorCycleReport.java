@@ -0,0 +1,115 @@
+package io.dwak.reactor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Describes a computation that hit a rerun limit, with the invalidations recorded while it made
+ * one more round: which dependency, written by which computation, invalidated which computation.
+ * For a cycle the steps lead from the computation back to itself.
+ */
+public class ReactorCycleReport {
+    /**
+     * One dependency change invalidating one computation
+     */
+    public static class Step {
+        private final int mDependencyId;
+        private final ReactorComputation mWriter;
+        private final ReactorComputation mInvalidated;
+
+        Step(ReactorDependency dependency, ReactorComputation writer, ReactorComputation invalidated) {
+            mDependencyId = System.identityHashCode(dependency);
+            mWriter = writer;
+            mInvalidated = invalidated;
+        }
+
+        /**
+         * @return identity hash code of the dependency that changed
+         */
+        public int getDependencyId() {
+            return mDependencyId;
+        }
+
+        /**
+         * @return computation that changed the dependency, null if it changed outside of one
+         */
+        public ReactorComputation getWriter() {
+            return mWriter;
+        }
+
+        public ReactorComputation getInvalidated() {
+            return mInvalidated;
+        }
+
+        @Override
+        public String toString() {
+            return "dependency " + mDependencyId
+                    + (mWriter != null ? " written by computation " + mWriter.getId() : " written outside a computation")
+                    + " invalidated computation " + mInvalidated.getId();
+        }
+    }
+
+    private final ReactorComputation mComputation;
+    private final int mRuns;
+    private final boolean mFlushLimit;
+    private final ReactorRunawayPolicy mPolicy;
+    private final List<Step> mSteps;
+
+    ReactorCycleReport(ReactorComputation computation, int runs, boolean flushLimit,
+                       ReactorRunawayPolicy policy, ArrayList<Step> steps) {
+        mComputation = computation;
+        mRuns = runs;
+        mFlushLimit = flushLimit;
+        mPolicy = policy;
+        mSteps = Collections.unmodifiableList(steps);
+    }
+
+    public ReactorComputation getComputation() {
+        return mComputation;
+    }
+
+    /**
+     * @return number of runs of the computation in the flush, or of all computations if
+     * {@link #isFlushLimit()}
+     */
+    public int getRuns() {
+        return mRuns;
+    }
+
+    /**
+     * @return true if the per flush limit was hit rather than the per computation one
+     */
+    public boolean isFlushLimit() {
+        return mFlushLimit;
+    }
+
+    public ReactorRunawayPolicy getPolicy() {
+        return mPolicy;
+    }
+
+    /**
+     * @return invalidations recorded before the computation was caught, oldest first
+     */
+    public List<Step> getSteps() {
+        return mSteps;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        if (mFlushLimit) {
+            builder.append("flush reran computations ").append(mRuns).append(" times");
+        }
+        else {
+            builder.append("computation ").append(mComputation.getId()).append(" reran ")
+                    .append(mRuns).append(" times in one flush");
+        }
+        builder.append(", ").append(mPolicy == ReactorRunawayPolicy.STOP ? "stopped" : "deferred")
+                .append(" computation ").append(mComputation.getId());
+        for (int i = 0; i < mSteps.size(); i++) {
+            builder.append("\n  ").append(mSteps.get(i));
+        }
+        return builder.toString();
+    }
+}
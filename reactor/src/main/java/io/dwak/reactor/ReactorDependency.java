@@ -1,19 +1,44 @@
 package io.dwak.reactor;
 
-import android.util.SparseArray;
-
-import io.dwak.reactor.interfaces.ReactorInvalidateCallback;
-
 /**
  * A Dependency represents an atomic unit of reactive data that a
  * computation might depend on.
  * When the data changes, the computations are invalidated.
  */
 public class ReactorDependency {
-    private SparseArray<ReactorComputation> mDependentsById;
+    /**
+     * Dependents in the order they first depended on this dependency
+     */
+    private ReactorEdge mFirstDependent;
+    private ReactorEdge mLastDependent;
+    private int mDependentCount;
+
+    /**
+     * Id and run of the computation behind the last {@link #depend(ReactorComputation)}, so repeated
+     * reads within one run are recognised in O(1). Ids rather than a reference, so the stamp never
+     * needs clearing and doesn't keep a stopped computation reachable.
+     */
+    private int mLastReaderId;
+    private int mLastReaderRun;
+
+    /**
+     * One more than the height of the highest computation that changed this dependency,
+     * 0 if it has only changed outside of computations
+     */
+    private int mHeight;
+
+    /**
+     * Enqueue sequence of the computation that last changed this dependency, 0 if none that was
+     * ever queued has
+     */
+    private int mWriterSequence;
+
+    /**
+     * True if this dependency changed in the current batch and waits for the batch to end
+     */
+    private boolean mChangedInBatch;
 
     public ReactorDependency() {
-        mDependentsById = new SparseArray<ReactorComputation>();
     }
 
     public boolean depend() {
@@ -30,37 +55,189 @@ public class ReactorDependency {
      */
     public boolean depend(ReactorComputation reactorComputation) {
         if (reactorComputation == null) {
-            if (!Reactor.mActive)
+            final Reactor reactor = Reactor.getInstance();
+            if (!reactor.isActive())
                 return false;
 
-            reactorComputation = Reactor.getInstance().getCurrentReactorComputation();
+            reactorComputation = reactor.getCurrentReactorComputation();
         }
 
+        reactorComputation.raiseHeight(mHeight);
+
+        // an invalidated computation has dropped its edges and depends again when it reruns
+        if (reactorComputation.isInvalidated()) {
+            return false;
+        }
+
+        // A read interleaved with another computation's, e.g. a ReactorComputed recomputing in the
+        // middle of this run, can add a second edge. That only costs the edge: both are dropped
+        // together and invalidating a computation twice is a no-op.
         final int id = reactorComputation.getId();
-        if (mDependentsById.get(id) == null) {
-            mDependentsById.put(id, reactorComputation);
-            reactorComputation.addInvalidateComputationFunction(new ReactorInvalidateCallback() {
-                @Override
-                public void onInvalidate() {
-                    mDependentsById.remove(id);
-                }
-            });
+        final int run = reactorComputation.getRunCount();
+        if (mLastReaderId == id && mLastReaderRun == run) {
+            return false;
+        }
+        mLastReaderId = id;
+        mLastReaderRun = run;
+
+        // changed by a computation queued after this one, which a FIFO flush would have run first
+        final int sequence = reactorComputation.getEnqueueSequence();
+        if (sequence != 0 && mWriterSequence - sequence > 0) {
+            reactorComputation.getReactor().recordRedundantRecomputeAvoided(reactorComputation);
+        }
+
+        final ReactorEdge edge = reactorComputation.getReactor().obtainEdge();
+        edge.mComputation = reactorComputation;
+        edge.mDependency = this;
+        edge.mPrevDependent = mLastDependent;
+        if (mLastDependent == null) {
+            mFirstDependent = edge;
+        }
+        else {
+            mLastDependent.mNextDependent = edge;
+        }
+        mLastDependent = edge;
+        mDependentCount++;
+        reactorComputation.addEdge(edge);
+        return true;
+    }
+
+    /**
+     * Unlinks an edge from the list of dependents in O(1)
+     */
+    void removeEdge(ReactorEdge edge) {
+        if (edge.mPrevDependent == null) {
+            mFirstDependent = edge.mNextDependent;
+        }
+        else {
+            edge.mPrevDependent.mNextDependent = edge.mNextDependent;
+        }
+
+        if (edge.mNextDependent == null) {
+            mLastDependent = edge.mPrevDependent;
+        }
+        else {
+            edge.mNextDependent.mPrevDependent = edge.mPrevDependent;
+        }
 
-            return true;
+        mDependentCount--;
+        if (mDependentCount == 0) {
+            onLastDependantRemoved();
         }
-        return false;
+    }
+
+    /**
+     * Called when the last dependant is removed, e.g. when it is invalidated or stopped.
+     * Lets a derived value stop following its own sources while nothing reads it.
+     */
+    void onLastDependantRemoved() {
     }
 
     /**
      * Invalidate all dependent computations immediately and remove them as dependents.
+     * The dependents are snapshotted first, so computations that start depending on this
+     * dependency from invalidation callbacks aren't invalidated by this call. Runs in time
+     * linear in the number of dependents.
+     * Inside {@link Reactor#batch(io.dwak.reactor.interfaces.ReactorBatchFunction)} the dependents
+     * are invalidated when the outermost batch ends instead.
+     *
+     * @return number of computations invalidated, the fan-out of this change, 0 inside a batch
+     */
+    public int changed() {
+        final Reactor reactor = Reactor.getInstance();
+        final int writerHeight = reactor.getWriterHeight();
+        if (writerHeight > mHeight) {
+            mHeight = writerHeight;
+        }
+        final int writerSequence = reactor.getWriterSequence();
+        if (writerSequence != 0) {
+            mWriterSequence = writerSequence;
+        }
+
+        if (reactor.isBatching()) {
+            if (!mChangedInBatch) {
+                mChangedInBatch = true;
+                reactor.addBatchedChange(this);
+            }
+            return 0;
+        }
+        return fanOut(reactor);
+    }
+
+    /**
+     * Records a write that left the data as it was. Nothing is invalidated, but the height of the
+     * writing computation is still learned, and passed on to the current dependents. A reader
+     * created before its writer is then ordered after the writer as soon as the writer has written
+     * once, even an unchanged value. A writer that doesn't write at all on its first run is only
+     * learned from on its first write, so until then a reader sharing its inputs may run first and
+     * rerun once more after the write.
      */
-    public void changed() {
-        int key;
-        final int size = mDependentsById.size();
-        for (int i = 0; i < size; i++) {
-            key = mDependentsById.keyAt(i);
-            mDependentsById.get(key).invalidate();
+    public void unchanged() {
+        final int writerHeight = Reactor.getInstance().getWriterHeight();
+        if (writerHeight <= mHeight) {
+            return;
         }
+
+        mHeight = writerHeight;
+        for (ReactorEdge edge = mFirstDependent; edge != null; edge = edge.mNextDependent) {
+            edge.mComputation.raiseHeight(writerHeight);
+        }
+    }
+
+    void cancelBatchedChange() {
+        mChangedInBatch = false;
+    }
+
+    /**
+     * Invalidates a snapshot of the dependents
+     */
+    int fanOut(Reactor reactor) {
+        mChangedInBatch = false;
+        final int count = mDependentCount;
+        if (count == 0) {
+            return 0;
+        }
+
+        final ReactorTracer tracer = reactor.getTracer();
+        if (tracer != null) {
+            tracer.record(ReactorTracer.FAN_OUT, System.identityHashCode(this), count);
+        }
+        final ReactorMetrics metrics = reactor.getMetrics();
+        if (metrics != null) {
+            metrics.recordFanOut(this, count);
+        }
+
+        final int base = reactor.reserveFanOut(count);
+        final ReactorComputation[] snapshot = reactor.getFanOutScratch();
+        int i = base;
+        for (ReactorEdge edge = mFirstDependent; edge != null; edge = edge.mNextDependent) {
+            snapshot[i++] = edge.mComputation;
+        }
+
+        final boolean recordingCycle = reactor.isRecordingCycle();
+        try {
+            for (i = base; i < base + count; i++) {
+                final ReactorComputation reactorComputation = snapshot[i];
+                if (recordingCycle) {
+                    reactor.recordCycleStep(this, reactorComputation);
+                }
+                // our height may have grown since the computation read us
+                reactorComputation.raiseHeight(mHeight);
+                // a no-op if an earlier invalidation callback already invalidated it
+                reactorComputation.invalidate();
+            }
+        } finally {
+            reactor.releaseFanOut(base, count);
+        }
+        return count;
+    }
+
+    /**
+     * @return number of computations that currently depend on this dependency. A computation whose
+     * reads were interleaved with another computation reading this dependency may count twice.
+     */
+    public int getDependentCount() {
+        return mDependentCount;
     }
 
     /**
@@ -69,7 +246,7 @@ public class ReactorDependency {
      * @return true if the dependency has dependants
      */
     public boolean hasDependants() {
-        return mDependentsById.size() > 0;
+        return mFirstDependent != null;
     }
 
 
@@ -77,12 +254,8 @@ public class ReactorDependency {
      * Removes all dependants from this dependency object
      */
     void unbind() {
-        int key;
-        for(int i = 0; i < mDependentsById.size(); i++){
-            key = mDependentsById.keyAt(i);
-            mDependentsById.get(key).stop();
+        while (mFirstDependent != null) {
+            mFirstDependent.mComputation.stop();
         }
-
-        mDependentsById.clear();
     }
 }
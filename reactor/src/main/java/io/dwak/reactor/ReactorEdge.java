@@ -0,0 +1,23 @@
+package io.dwak.reactor;
+
+/**
+ * Link between a {@link ReactorDependency} and a {@link ReactorComputation} that depends on it.
+ * An edge sits in two intrusive lists at once: the dependency's doubly linked list of dependents,
+ * and the computation's singly linked list of edges, which is always dropped as a whole when the
+ * computation is invalidated. Edges are recycled through {@link Reactor}'s pool.
+ */
+final class ReactorEdge {
+    ReactorComputation mComputation;
+    ReactorDependency mDependency;
+
+    /**
+     * Neighbours in {@link #mDependency}'s list of dependents
+     */
+    ReactorEdge mPrevDependent;
+    ReactorEdge mNextDependent;
+
+    /**
+     * Next edge of {@link #mComputation}, or the next free edge while pooled
+     */
+    ReactorEdge mNextEdge;
+}
@@ -0,0 +1,113 @@
+package io.dwak.reactor;
+
+import java.util.Comparator;
+
+import io.dwak.reactor.interfaces.ReactorEquivalence;
+
+/**
+ * Common {@link ReactorEquivalence} implementations
+ */
+public final class ReactorEquivalences {
+    private static final ReactorEquivalence<Object> EQUALITY = new ReactorEquivalence<Object>() {
+        @Override
+        public boolean equivalent(Object previous, Object next) {
+            return previous == null ? next == null : previous.equals(next);
+        }
+    };
+
+    private static final ReactorEquivalence<Object> IDENTITY = new ReactorEquivalence<Object>() {
+        @Override
+        public boolean equivalent(Object previous, Object next) {
+            return previous == next;
+        }
+    };
+
+    private static final ReactorEquivalence<Object> IMMUTABLE_VALUES = new ReactorEquivalence<Object>() {
+        @Override
+        public boolean equivalent(Object previous, Object next) {
+            if (previous == null) {
+                return next == null;
+            }
+            // a mutable object set again may have been changed in place
+            return isImmutable(previous) && previous.equals(next);
+        }
+    };
+
+    private static final ReactorEquivalence<Object> NEVER = new ReactorEquivalence<Object>() {
+        @Override
+        public boolean equivalent(Object previous, Object next) {
+            return false;
+        }
+    };
+
+    private ReactorEquivalences() {
+    }
+
+    private static boolean isImmutable(Object value) {
+        return value instanceof String
+                || value instanceof Integer
+                || value instanceof Long
+                || value instanceof Boolean
+                || value instanceof Double
+                || value instanceof Float
+                || value instanceof Short
+                || value instanceof Byte
+                || value instanceof Character
+                || value instanceof Enum;
+    }
+
+    /**
+     * @return equivalence that compares values with {@link Object#equals(Object)}
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ReactorEquivalence<T> equality() {
+        return (ReactorEquivalence<T>) EQUALITY;
+    }
+
+    /**
+     * @return equivalence that compares references
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ReactorEquivalence<T> identity() {
+        return (ReactorEquivalence<T>) IDENTITY;
+    }
+
+    /**
+     * Like meteor's ReactiveVar: strings, boxed primitives and enums are compared with
+     * {@link Object#equals(Object)}, any other object is only equivalent to itself. The referenced
+     * object may have been mutated, so setting it again still notifies.
+     *
+     * @return equivalence that treats only immutable values as comparable
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ReactorEquivalence<T> immutableValues() {
+        return (ReactorEquivalence<T>) IMMUTABLE_VALUES;
+    }
+
+    /**
+     * @return equivalence under which every write is a change
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ReactorEquivalence<T> never() {
+        return (ReactorEquivalence<T>) NEVER;
+    }
+
+    /**
+     * @param comparator comparator returning 0 for values that are the same
+     * @return equivalence backed by a {@link Comparator}
+     */
+    public static <T> ReactorEquivalence<T> comparing(final Comparator<? super T> comparator) {
+        return new ReactorEquivalence<T>() {
+            @Override
+            public boolean equivalent(T previous, T next) {
+                if (previous == next) {
+                    return true;
+                }
+                if (previous == null || next == null) {
+                    return false;
+                }
+                return comparator.compare(previous, next) == 0;
+            }
+        };
+    }
+}
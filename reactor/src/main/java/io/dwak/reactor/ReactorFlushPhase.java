@@ -0,0 +1,28 @@
+package io.dwak.reactor;
+
+/**
+ * Phases of the afterFlush callbacks, see {@link Reactor#afterFlush(ReactorFlushPhase, io.dwak.reactor.interfaces.ReactorFlushCallback)}.
+ * Once computations have settled, callbacks of an earlier phase run before those of a later one,
+ * so reading layout in {@link #READ} and changing views in {@link #WRITE} doesn't force a layout pass per view.
+ */
+public enum ReactorFlushPhase {
+    /**
+     * Default phase, for callbacks that only update reactive state
+     */
+    COMPUTE,
+
+    /**
+     * Measuring views and reading layout, without changing anything
+     */
+    READ,
+
+    /**
+     * Changing views, after every read queued in this flush is done
+     */
+    WRITE,
+
+    /**
+     * Runs last, e.g. to start animations or report what was drawn
+     */
+    POST_RENDER
+}
@@ -0,0 +1,105 @@
+package io.dwak.reactor;
+
+/**
+ * Histogram with power of two buckets, cheap enough to record into on every computation.
+ * Percentiles are reported as the upper bound of the bucket they fall in, so they are accurate
+ * to within a factor of two. Only {@link ReactorMetrics} records into histograms, and snapshots
+ * hand out copies, so a histogram read from a {@link ReactorMetricsSnapshot} never changes.
+ */
+public class ReactorHistogram {
+    /**
+     * Bucket 0 holds zero, bucket i holds values in [2^(i-1), 2^i). Only grown up to the highest
+     * bucket recorded into, null while empty, since every computation has a histogram.
+     */
+    private long[] mBuckets;
+    private long mCount;
+    private long mSum;
+    private long mMax;
+
+    ReactorHistogram() {
+    }
+
+    private ReactorHistogram(ReactorHistogram other) {
+        mBuckets = other.mBuckets != null ? other.mBuckets.clone() : null;
+        mCount = other.mCount;
+        mSum = other.mSum;
+        mMax = other.mMax;
+    }
+
+    /**
+     * @param value value to record, negative values count as zero
+     */
+    void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        final int bucket = 64 - Long.numberOfLeadingZeros(value);
+        if (mBuckets == null || bucket >= mBuckets.length) {
+            final long[] buckets = new long[bucket + 1];
+            if (mBuckets != null) {
+                System.arraycopy(mBuckets, 0, buckets, 0, mBuckets.length);
+            }
+            mBuckets = buckets;
+        }
+        mBuckets[bucket]++;
+        mCount++;
+        mSum += value;
+        if (value > mMax) {
+            mMax = value;
+        }
+    }
+
+    public long getCount() {
+        return mCount;
+    }
+
+    public long getSum() {
+        return mSum;
+    }
+
+    public long getMax() {
+        return mMax;
+    }
+
+    public double getMean() {
+        return mCount == 0 ? 0 : (double) mSum / mCount;
+    }
+
+    /**
+     * @param percentile percentile between 0 and 100
+     * @return upper bound of the bucket holding the percentile, capped at the maximum, 0 if empty
+     */
+    public long getPercentile(double percentile) {
+        if (mCount == 0) {
+            return 0;
+        }
+
+        final long rank = (long) Math.ceil(mCount * Math.min(Math.max(percentile, 0), 100) / 100);
+        long seen = 0;
+        for (int i = 0; i < mBuckets.length; i++) {
+            seen += mBuckets[i];
+            if (seen >= rank && seen > 0) {
+                final long upperBound = i == 0 ? 0 : (1L << i) - 1;
+                return Math.min(upperBound, mMax);
+            }
+        }
+        return mMax;
+    }
+
+    void clear() {
+        mBuckets = null;
+        mCount = 0;
+        mSum = 0;
+        mMax = 0;
+    }
+
+    ReactorHistogram copy() {
+        return new ReactorHistogram(this);
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + mCount + " mean=" + (long) getMean() + " p50=" + getPercentile(50)
+                + " p99=" + getPercentile(99) + " max=" + mMax;
+    }
+}
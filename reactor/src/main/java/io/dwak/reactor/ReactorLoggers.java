@@ -0,0 +1,50 @@
+package io.dwak.reactor;
+
+import io.dwak.reactor.interfaces.ReactorLogger;
+
+/**
+ * Common {@link ReactorLogger} implementations for a plain JVM. On Android the default logger
+ * writes to logcat.
+ */
+public final class ReactorLoggers {
+    private static final ReactorLogger NONE = new ReactorLogger() {
+        @Override
+        public void log(String tag, String message) {
+        }
+
+        @Override
+        public void log(String tag, String message, Throwable throwable) {
+        }
+    };
+
+    private static final ReactorLogger CONSOLE = new ReactorLogger() {
+        @Override
+        public void log(String tag, String message) {
+            System.out.println(tag + ": " + message);
+        }
+
+        @Override
+        public void log(String tag, String message, Throwable throwable) {
+            System.err.println(tag + ": " + message);
+            throwable.printStackTrace();
+        }
+    };
+
+    private ReactorLoggers() {
+    }
+
+    /**
+     * @return logger that drops everything, the default on a plain JVM
+     */
+    public static ReactorLogger none() {
+        return NONE;
+    }
+
+    /**
+     * @return logger that prints messages to standard out, and errors with their stack trace to
+     * standard error
+     */
+    public static ReactorLogger console() {
+        return CONSOLE;
+    }
+}
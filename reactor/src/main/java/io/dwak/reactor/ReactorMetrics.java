@@ -0,0 +1,155 @@
+package io.dwak.reactor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.WeakHashMap;
+
+/**
+ * Counters and histograms describing what a {@link Reactor} spends its time on: how often and
+ * how long each computation runs, how many computations each dependency change invalidates,
+ * how long flushes take and how deep the pending queue gets, and how much work was skipped.
+ * <p>
+ * Install it with {@link Reactor#setMetrics(ReactorMetrics)}. Recording costs a clock read per
+ * computation and flush, a map lookup per dependency change and a few array increments, and
+ * each node gets its stats object the first time it is recorded, so it can stay on in release
+ * builds. Stats are only kept for live nodes: a computation's are dropped when it stops, and
+ * a node's are dropped once it is garbage collected. Like the reactor it is used from the reactor's thread only; take a {@link #snapshot()} to hand the numbers to other code.
+ */
+public class ReactorMetrics {
+    private final ReactorHistogram mFlushDurations = new ReactorHistogram();
+    private final ReactorHistogram mQueueDepths = new ReactorHistogram();
+    private final ReactorHistogram mFanOuts = new ReactorHistogram();
+    /**
+     * Computations also point at their stats, these maps only let snapshots find them
+     */
+    private final WeakHashMap<ReactorComputation, ReactorNodeStats> mStatsByComputation =
+            new WeakHashMap<ReactorComputation, ReactorNodeStats>();
+
+    /**
+     * Dependencies are far more numerous than computations, so their stats are looked up here
+     * instead of costing every dependency a field
+     */
+    private final WeakHashMap<ReactorDependency, ReactorNodeStats> mStatsByDependency =
+            new WeakHashMap<ReactorDependency, ReactorNodeStats>();
+    /**
+     * Dependencies have no id of their own, so they are numbered as they are first recorded
+     */
+    private int mNextDependencyId = 1;
+    private long mSuppressedWrites;
+    private long mUnchangedResults;
+    private long mParkedReruns;
+    private long mDeferredComputations;
+
+    /**
+     * Names a computation in snapshots
+     */
+    public void setName(ReactorComputation reactorComputation, String name) {
+        statsFor(reactorComputation).setName(name);
+    }
+
+    /**
+     * Names a dependency in snapshots
+     */
+    public void setName(ReactorDependency dependency, String name) {
+        statsFor(dependency).setName(name);
+    }
+
+    ReactorNodeStats statsFor(ReactorComputation reactorComputation) {
+        ReactorNodeStats stats = reactorComputation.getStats();
+        if (stats == null || stats.mMetrics != this) {
+            stats = new ReactorNodeStats(this, reactorComputation.getId(), true);
+            reactorComputation.setStats(stats);
+            mStatsByComputation.put(reactorComputation, stats);
+        }
+        return stats;
+    }
+
+    ReactorNodeStats statsFor(ReactorDependency dependency) {
+        ReactorNodeStats stats = mStatsByDependency.get(dependency);
+        if (stats == null) {
+            stats = new ReactorNodeStats(this, mNextDependencyId++, false);
+            mStatsByDependency.put(dependency, stats);
+        }
+        return stats;
+    }
+
+    /**
+     * Drops the stats of a computation that stopped
+     */
+    void retire(ReactorComputation reactorComputation) {
+        mStatsByComputation.remove(reactorComputation);
+    }
+
+    void recordCompute(ReactorComputation reactorComputation, long durationNanos) {
+        statsFor(reactorComputation).record(durationNanos);
+    }
+
+    void recordFanOut(ReactorDependency dependency, int dependents) {
+        mFanOuts.record(dependents);
+        statsFor(dependency).record(dependents);
+    }
+
+    void recordFlush(long durationNanos, int queueDepth, int deferred) {
+        mFlushDurations.record(durationNanos);
+        mQueueDepths.record(queueDepth);
+        mDeferredComputations += deferred;
+    }
+
+    void recordSuppressedWrite() {
+        mSuppressedWrites++;
+    }
+
+    void recordUnchangedResult() {
+        mUnchangedResults++;
+    }
+
+    void recordParkedRerun() {
+        mParkedReruns++;
+    }
+
+    /**
+     * Copies the current numbers, with the stats of the nodes that are still live
+     *
+     * @param reactor reactor these metrics are installed on, for its redundant recompute count
+     */
+    public ReactorMetricsSnapshot snapshot(Reactor reactor) {
+        return new ReactorMetricsSnapshot(mFlushDurations.copy(), mQueueDepths.copy(), mFanOuts.copy(),
+                copy(mStatsByComputation.values()), copy(mStatsByDependency.values()),
+                mSuppressedWrites, mUnchangedResults, mParkedReruns, mDeferredComputations,
+                reactor.getRedundantRecomputesAvoided());
+    }
+
+    /**
+     * Like {@link #snapshot(Reactor)} for the calling thread's reactor
+     */
+    public ReactorMetricsSnapshot snapshot() {
+        return snapshot(Reactor.getInstance());
+    }
+
+    private static ArrayList<ReactorNodeStats> copy(Collection<ReactorNodeStats> stats) {
+        final ArrayList<ReactorNodeStats> copies = new ArrayList<ReactorNodeStats>(stats.size());
+        for (ReactorNodeStats nodeStats : stats) {
+            copies.add(nodeStats.copy());
+        }
+        return copies;
+    }
+
+    /**
+     * Clears every counter and histogram. Names are kept.
+     */
+    public void reset() {
+        mFlushDurations.clear();
+        mQueueDepths.clear();
+        mFanOuts.clear();
+        for (ReactorNodeStats stats : mStatsByComputation.values()) {
+            stats.getHistogram().clear();
+        }
+        for (ReactorNodeStats stats : mStatsByDependency.values()) {
+            stats.getHistogram().clear();
+        }
+        mSuppressedWrites = 0;
+        mUnchangedResults = 0;
+        mParkedReruns = 0;
+        mDeferredComputations = 0;
+    }
+}
@@ -0,0 +1,136 @@
+package io.dwak.reactor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Copy of {@link ReactorMetrics} at one point in time, safe to read from any thread
+ */
+public class ReactorMetricsSnapshot {
+    private static final Comparator<ReactorNodeStats> BY_COUNT = new Comparator<ReactorNodeStats>() {
+        @Override
+        public int compare(ReactorNodeStats lhs, ReactorNodeStats rhs) {
+            final long lhsCount = lhs.getCount();
+            final long rhsCount = rhs.getCount();
+            return lhsCount < rhsCount ? 1 : lhsCount > rhsCount ? -1 : 0;
+        }
+    };
+
+    private final ReactorHistogram mFlushDurations;
+    private final ReactorHistogram mQueueDepths;
+    private final ReactorHistogram mFanOuts;
+    private final List<ReactorNodeStats> mComputations;
+    private final List<ReactorNodeStats> mDependencies;
+    private final long mSuppressedWrites;
+    private final long mUnchangedResults;
+    private final long mParkedReruns;
+    private final long mDeferredComputations;
+    private final long mRedundantRecomputesAvoided;
+
+    ReactorMetricsSnapshot(ReactorHistogram flushDurations, ReactorHistogram queueDepths, ReactorHistogram fanOuts,
+                           ArrayList<ReactorNodeStats> computations, ArrayList<ReactorNodeStats> dependencies,
+                           long suppressedWrites, long unchangedResults, long parkedReruns,
+                           long deferredComputations, long redundantRecomputesAvoided) {
+        mFlushDurations = flushDurations;
+        mQueueDepths = queueDepths;
+        mFanOuts = fanOuts;
+        Collections.sort(computations, BY_COUNT);
+        Collections.sort(dependencies, BY_COUNT);
+        mComputations = Collections.unmodifiableList(computations);
+        mDependencies = Collections.unmodifiableList(dependencies);
+        mSuppressedWrites = suppressedWrites;
+        mUnchangedResults = unchangedResults;
+        mParkedReruns = parkedReruns;
+        mDeferredComputations = deferredComputations;
+        mRedundantRecomputesAvoided = redundantRecomputesAvoided;
+    }
+
+    /**
+     * @return flush durations in nanoseconds
+     */
+    public ReactorHistogram getFlushDurations() {
+        return mFlushDurations;
+    }
+
+    /**
+     * @return number of pending computations when each flush started
+     */
+    public ReactorHistogram getQueueDepths() {
+        return mQueueDepths;
+    }
+
+    /**
+     * @return number of computations invalidated by each dependency change
+     */
+    public ReactorHistogram getFanOuts() {
+        return mFanOuts;
+    }
+
+    /**
+     * @return per computation stats, the most often run first
+     */
+    public List<ReactorNodeStats> getComputations() {
+        return mComputations;
+    }
+
+    /**
+     * @return per dependency stats, the most often changed first
+     */
+    public List<ReactorNodeStats> getDependencies() {
+        return mDependencies;
+    }
+
+    /**
+     * @return writes to reactive vars that were dropped because the value didn't change
+     */
+    public long getSuppressedWrites() {
+        return mSuppressedWrites;
+    }
+
+    /**
+     * @return reruns of a {@link ReactorComputed} whose result was unchanged, so readers didn't rerun
+     */
+    public long getUnchangedResults() {
+        return mUnchangedResults;
+    }
+
+    /**
+     * @return reruns skipped because the computation's {@link ReactorScope} was paused
+     */
+    public long getParkedReruns() {
+        return mParkedReruns;
+    }
+
+    /**
+     * @return computations left for a later tick because a flush ran out of budget
+     */
+    public long getDeferredComputations() {
+        return mDeferredComputations;
+    }
+
+    /**
+     * @return reruns a FIFO flush order would have needed, see {@link Reactor#getRedundantRecomputesAvoided()}
+     */
+    public long getRedundantRecomputesAvoided() {
+        return mRedundantRecomputesAvoided;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("flush ns: ").append(mFlushDurations)
+                .append("\nqueue depth: ").append(mQueueDepths)
+                .append("\nfan-out: ").append(mFanOuts)
+                .append("\nsuppressed writes=").append(mSuppressedWrites)
+                .append(" unchanged results=").append(mUnchangedResults)
+                .append(" parked reruns=").append(mParkedReruns)
+                .append(" deferred=").append(mDeferredComputations)
+                .append(" redundant avoided=").append(mRedundantRecomputesAvoided);
+        for (int i = 0; i < Math.min(10, mComputations.size()); i++) {
+            builder.append('\n').append(mComputations.get(i));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,80 @@
+package io.dwak.reactor;
+
+/**
+ * Metrics of one computation or dependency. For a computation the count is its runs and the
+ * histogram their durations in nanoseconds, for a dependency the count is its changes and the
+ * histogram the number of computations each change invalidated.
+ */
+public class ReactorNodeStats {
+    final ReactorMetrics mMetrics;
+    private final int mId;
+    private final boolean mComputation;
+    private final ReactorHistogram mHistogram;
+    private String mName;
+
+    ReactorNodeStats(ReactorMetrics metrics, int id, boolean computation) {
+        mMetrics = metrics;
+        mId = id;
+        mComputation = computation;
+        mHistogram = new ReactorHistogram();
+    }
+
+    private ReactorNodeStats(ReactorNodeStats other) {
+        mMetrics = other.mMetrics;
+        mId = other.mId;
+        mComputation = other.mComputation;
+        mHistogram = other.mHistogram.copy();
+        mName = other.mName;
+    }
+
+    void record(long value) {
+        mHistogram.record(value);
+    }
+
+    ReactorNodeStats copy() {
+        return new ReactorNodeStats(this);
+    }
+
+    /**
+     * @return computation id, or for a dependency its number in the order these metrics first
+     * recorded dependencies
+     */
+    public int getId() {
+        return mId;
+    }
+
+    /**
+     * @return the name given with {@link ReactorMetrics#setName}, or null
+     */
+    public String getName() {
+        return mName;
+    }
+
+    void setName(String name) {
+        mName = name;
+    }
+
+    public boolean isComputation() {
+        return mComputation;
+    }
+
+    /**
+     * @return number of runs for a computation, number of changes for a dependency
+     */
+    public long getCount() {
+        return mHistogram.getCount();
+    }
+
+    /**
+     * @return run durations in nanoseconds for a computation, fan-out sizes for a dependency
+     */
+    public ReactorHistogram getHistogram() {
+        return mHistogram;
+    }
+
+    @Override
+    public String toString() {
+        return (mComputation ? "computation " : "dependency ") + (mName != null ? mName : String.valueOf(mId))
+                + " " + mHistogram;
+    }
+}
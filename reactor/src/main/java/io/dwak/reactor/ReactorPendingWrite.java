@@ -0,0 +1,10 @@
+package io.dwak.reactor;
+
+/**
+ * A write made off a reactor's owner thread, applied by the owner at the start of the next flush.
+ * An abstract class rather than an interface so {@link #applyPendingWrite()} stays package private
+ * on the public vars that extend it.
+ */
+abstract class ReactorPendingWrite {
+    abstract void applyPendingWrite();
+}
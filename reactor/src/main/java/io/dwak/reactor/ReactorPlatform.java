@@ -0,0 +1,100 @@
+package io.dwak.reactor;
+
+import java.lang.reflect.InvocationTargetException;
+
+import io.dwak.reactor.interfaces.ReactorLogger;
+import io.dwak.reactor.interfaces.ReactorScheduler;
+import io.dwak.reactor.scheduler.ManualReactorScheduler;
+
+/**
+ * Picks platform defaults. The Android classes are looked up by name and only loaded when running
+ * on an Android VM, so the engine compiles and runs without the android package on a plain JVM.
+ */
+final class ReactorPlatform {
+    private static final boolean IS_ANDROID = "Dalvik".equals(System.getProperty("java.vm.name"));
+
+    private static final String LOOPER_SCHEDULER = "io.dwak.reactor.android.LooperReactorScheduler";
+    private static final String LOGCAT_LOGGER = "io.dwak.reactor.android.LogcatReactorLogger";
+
+    private ReactorPlatform() {
+    }
+
+    static boolean isAndroid() {
+        return IS_ANDROID;
+    }
+
+    /**
+     * @return main looper scheduler on Android, otherwise a {@link ManualReactorScheduler}
+     * that only flushes when asked to
+     */
+    static ReactorScheduler defaultScheduler() {
+        if (IS_ANDROID) {
+            return (ReactorScheduler) newInstance(LOOPER_SCHEDULER);
+        }
+        return new ManualReactorScheduler();
+    }
+
+    /**
+     * @return scheduler for the calling thread's looper on Android, otherwise a {@link ManualReactorScheduler}
+     */
+    static ReactorScheduler schedulerForCurrentThread() {
+        if (IS_ANDROID) {
+            final ReactorScheduler scheduler = (ReactorScheduler) invokeStatic(LOOPER_SCHEDULER, "forCurrentThread");
+            if (scheduler != null) {
+                return scheduler;
+            }
+        }
+        return new ManualReactorScheduler();
+    }
+
+    /**
+     * @return the main thread on Android, otherwise the calling thread
+     */
+    static Thread defaultOwnerThread() {
+        if (IS_ANDROID) {
+            return (Thread) invokeStatic(LOOPER_SCHEDULER, "mainThread");
+        }
+        return Thread.currentThread();
+    }
+
+    /**
+     * @return logcat on Android, otherwise {@link ReactorLoggers#none()}, so a library doesn't
+     * write to the console of the application embedding it unless asked to
+     */
+    static ReactorLogger defaultLogger() {
+        if (IS_ANDROID) {
+            return (ReactorLogger) newInstance(LOGCAT_LOGGER);
+        }
+        return ReactorLoggers.none();
+    }
+
+    private static Object newInstance(String className) {
+        try {
+            return Class.forName(className).getConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Missing " + className, e);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Missing " + className + "()", e);
+        } catch (InstantiationException e) {
+            throw new IllegalStateException("Can't create " + className, e);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Can't create " + className, e);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException(className + "() failed", e.getCause());
+        }
+    }
+
+    private static Object invokeStatic(String className, String methodName) {
+        try {
+            return Class.forName(className).getMethod(methodName).invoke(null);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Missing " + className, e);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Missing " + className + "." + methodName, e);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Can't call " + className + "." + methodName, e);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException(className + "." + methodName + " failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package io.dwak.reactor;
+
+import java.util.concurrent.CountDownLatch;
+
+import io.dwak.reactor.interfaces.ReactorComputationFunction;
+import io.dwak.reactor.interfaces.ReactorComputedFunction;
+import io.dwak.reactor.interfaces.ReactorPureFunction;
+import io.dwak.reactor.interfaces.ReactorResultCallback;
+
+/**
+ * Body of a computation created by {@link Reactor#autoRunPure(ReactorComputedFunction, ReactorPureFunction, ReactorResultCallback)}.
+ * The input is read reactively on the owner thread. When the reactor collects pure tasks during
+ * a flush the transform is left for {@link #run()} on the parallel executor, otherwise it runs inline.
+ */
+final class ReactorPureTask<I, O> implements ReactorComputationFunction, Runnable {
+    private final Reactor mReactor;
+    private final ReactorComputedFunction<I> mInput;
+    private final ReactorPureFunction<I, O> mTransform;
+    private final ReactorResultCallback<O> mCallback;
+
+    ReactorComputation mComputation;
+
+    /**
+     * True while this task is in the reactor's current parallel batch
+     */
+    boolean mCollected;
+
+    CountDownLatch mLatch;
+    private I mPendingInput;
+    private O mResult;
+    private Throwable mError;
+
+    ReactorPureTask(Reactor reactor, ReactorComputedFunction<I> input, ReactorPureFunction<I, O> transform, ReactorResultCallback<O> callback) {
+        mReactor = reactor;
+        mInput = input;
+        mTransform = transform;
+        mCallback = callback;
+    }
+
+    @Override
+    public void react(ReactorComputation reactorComputation) {
+        final I input = mInput.compute();
+        if (mReactor.isCollectingPureTasks()) {
+            mPendingInput = input;
+            if (!mCollected) {
+                mCollected = true;
+                mReactor.addPureTask(this);
+            }
+        }
+        else {
+            mReactor.publishPureResult(reactorComputation, this, mTransform.apply(input));
+        }
+    }
+
+    /**
+     * Runs the transform of a collected task, on any thread
+     */
+    @Override
+    public void run() {
+        try {
+            mResult = mTransform.apply(mPendingInput);
+        } catch (Throwable e) {
+            mError = e;
+        } finally {
+            mLatch.countDown();
+        }
+    }
+
+    /**
+     * Hands the result of a collected task to the callback, on the owner thread
+     *
+     * @return the error thrown by the transform, if any
+     */
+    Throwable finish() {
+        final O result = mResult;
+        final Throwable error = mError;
+        mCollected = false;
+        mLatch = null;
+        mPendingInput = null;
+        mResult = null;
+        mError = null;
+
+        if (error == null && !mComputation.isStopped()) {
+            mReactor.publishPureResult(mComputation, this, result);
+        }
+        return error;
+    }
+
+    void deliver(O result) {
+        mCallback.onResult(result);
+    }
+}
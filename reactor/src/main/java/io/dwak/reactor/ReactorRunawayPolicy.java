@@ -0,0 +1,18 @@
+package io.dwak.reactor;
+
+/**
+ * What a {@link Reactor} does with a computation that hits a rerun limit,
+ * see {@link Reactor#setRerunLimits(int, int)}
+ */
+public enum ReactorRunawayPolicy {
+    /**
+     * Stops the computation, so it never reruns again
+     */
+    STOP,
+
+    /**
+     * Leaves the computation invalidated and reruns it in the next flush, so a runaway loop
+     * keeps going but only one round per tick and the thread stays responsive
+     */
+    DEFER
+}
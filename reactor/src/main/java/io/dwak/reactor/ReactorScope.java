@@ -0,0 +1,129 @@
+package io.dwak.reactor;
+
+import java.util.ArrayList;
+
+import io.dwak.reactor.interfaces.ReactorComputationFunction;
+
+/**
+ * Owns a group of computations tied to a lifecycle, such as a View being attached or an Activity
+ * being started. {@link #stop()} stops all of them in one pass. While the scope is
+ * {@link #pause() paused} invalidated computations are skipped by the flush; {@link #resume()}
+ * reruns each of them once, however often it was invalidated in the meantime.
+ * <p>
+ * Computations created inside a scoped computation belong to the same scope. Like the other
+ * reactive objects a scope belongs to the reactor of the thread that created it.
+ */
+public class ReactorScope {
+    private static final int MIN_COMPACT_SIZE = 16;
+
+    private final Reactor mReactor;
+    private final ArrayList<ReactorComputation> mComputations = new ArrayList<ReactorComputation>();
+
+    /**
+     * Invalidated computations skipped while paused
+     */
+    private final ArrayList<ReactorComputation> mParked = new ArrayList<ReactorComputation>();
+
+    /**
+     * Size at which stopped computations are dropped from {@link #mComputations}
+     */
+    private int mCompactSize = MIN_COMPACT_SIZE;
+    private boolean mPaused;
+
+    public ReactorScope() {
+        mReactor = Reactor.getInstance();
+    }
+
+    /**
+     * Like {@link Reactor#autoRun(ReactorComputationFunction)}, with the computation owned by
+     * this scope. The first run happens right away even if the scope is paused.
+     *
+     * @param function function to run when dependencies change
+     * @return the {@link ReactorComputation} reference
+     */
+    public ReactorComputation autoRun(ReactorComputationFunction function) {
+        final ReactorComputation reactorComputation = mReactor.autoRun(function, this);
+        if (mComputations.size() >= mCompactSize) {
+            compact();
+        }
+        mComputations.add(reactorComputation);
+        return reactorComputation;
+    }
+
+    /**
+     * Skips reruns of this scope's computations until {@link #resume()}
+     */
+    public void pause() {
+        mPaused = true;
+    }
+
+    /**
+     * Queues every computation invalidated while paused for one catch-up rerun
+     */
+    public void resume() {
+        if (!mPaused) {
+            return;
+        }
+
+        mPaused = false;
+        for (int i = 0; i < mParked.size(); i++) {
+            final ReactorComputation reactorComputation = mParked.get(i);
+            if (reactorComputation.isInvalidated() && !reactorComputation.isStopped()
+                    && !reactorComputation.isQueued()) {
+                mReactor.requireFlush();
+                mReactor.enqueue(reactorComputation);
+            }
+        }
+        mParked.clear();
+    }
+
+    public boolean isPaused() {
+        return mPaused;
+    }
+
+    /**
+     * Stops every computation of this scope. The scope can be used again afterwards.
+     */
+    public void stop() {
+        for (int i = 0; i < mComputations.size(); i++) {
+            mComputations.get(i).stop();
+        }
+        mComputations.clear();
+        mParked.clear();
+        mCompactSize = MIN_COMPACT_SIZE;
+    }
+
+    /**
+     * @return number of computations created through this scope that haven't been stopped
+     */
+    public int getComputationCount() {
+        int count = 0;
+        for (int i = 0; i < mComputations.size(); i++) {
+            if (!mComputations.get(i).isStopped()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    void park(ReactorComputation reactorComputation) {
+        mParked.add(reactorComputation);
+    }
+
+    /**
+     * Drops computations that were stopped individually, so the list tracks live ones
+     */
+    private void compact() {
+        int live = 0;
+        for (int i = 0; i < mComputations.size(); i++) {
+            final ReactorComputation reactorComputation = mComputations.get(i);
+            if (!reactorComputation.isStopped()) {
+                mComputations.set(live++, reactorComputation);
+            }
+        }
+        for (int i = mComputations.size() - 1; i >= live; i--) {
+            mComputations.remove(i);
+        }
+        mCompactSize = Math.max(MIN_COMPACT_SIZE, live * 2);
+    }
+}
@@ -0,0 +1,210 @@
+package io.dwak.reactor;
+
+import java.util.concurrent.TimeUnit;
+
+import io.dwak.reactor.interfaces.ReactorComputationFunction;
+import io.dwak.reactor.interfaces.ReactorComputedFunction;
+import io.dwak.reactor.interfaces.ReactorEquivalence;
+import io.dwak.reactor.interfaces.ReactorScheduler;
+
+/**
+ * A value that follows a reactive source at a controlled rate. Only the cheap source function runs
+ * on every change; computations that read this value are invalidated at most at the rate of the
+ * operator, which keeps expensive work such as searches and validation off every keystroke.
+ * <p>
+ * Timing uses the {@link ReactorScheduler} of the reactor the value is created on, so a
+ * {@link io.dwak.reactor.scheduler.ManualReactorScheduler} drives it with a virtual clock.
+ * Like {@link ReactorComputed} it outlives the computation it is created in, call {@link #stop()}
+ * when it is no longer needed.
+ */
+public class ReactorTimedValue<T> {
+    private static final int DEBOUNCE = 0;
+    private static final int THROTTLE = 1;
+    private static final int SAMPLE = 2;
+
+    private final int mMode;
+    private final long mIntervalMillis;
+    private final ReactorComputedFunction<T> mSource;
+    private final ReactorEquivalence<? super T> mEquivalence;
+    private final ReactorDependency mDependency = new ReactorDependency();
+    private final Reactor mReactor;
+    private final ReactorComputation mComputation;
+
+    /**
+     * Start of the sampling period grid, on the scheduler's clock
+     */
+    private final long mStartNanos;
+
+    private final Runnable mTimeoutRunnable = new Runnable() {
+        @Override
+        public void run() {
+            onTimeout();
+        }
+    };
+
+    private T mValue;
+
+    /**
+     * Latest source value that hasn't been published yet
+     */
+    private T mLatest;
+    private boolean mHasLatest;
+    private boolean mTimerScheduled;
+
+    /**
+     * Publishes a source value once it has stopped changing for the interval
+     *
+     * @param source         source to follow
+     * @param intervalMillis quiet time before a value is published
+     */
+    public static <T> ReactorTimedValue<T> debounce(ReactorComputedFunction<T> source, long intervalMillis) {
+        return new ReactorTimedValue<T>(DEBOUNCE, source, intervalMillis);
+    }
+
+    /**
+     * Publishes a source change right away, then at most once per interval. The last value seen
+     * during an interval is published when it ends.
+     *
+     * @param source         source to follow
+     * @param intervalMillis minimum time between published values
+     */
+    public static <T> ReactorTimedValue<T> throttle(ReactorComputedFunction<T> source, long intervalMillis) {
+        return new ReactorTimedValue<T>(THROTTLE, source, intervalMillis);
+    }
+
+    /**
+     * Publishes the latest source value at the end of each period in which the source changed.
+     * No timer is scheduled while the source is idle.
+     *
+     * @param source         source to follow
+     * @param intervalMillis length of a period
+     */
+    public static <T> ReactorTimedValue<T> sample(ReactorComputedFunction<T> source, long intervalMillis) {
+        return new ReactorTimedValue<T>(SAMPLE, source, intervalMillis);
+    }
+
+    private ReactorTimedValue(int mode, ReactorComputedFunction<T> source, long intervalMillis) {
+        mMode = mode;
+        mSource = source;
+        mIntervalMillis = intervalMillis;
+        mEquivalence = ReactorEquivalences.<T>equality();
+        mReactor = Reactor.getInstance();
+        mStartNanos = mReactor.getScheduler().nanoTime();
+
+        final ReactorComputation previous = mReactor.getCurrentReactorComputation();
+        mReactor.setCurrentReactorComputation(null);
+        try {
+            mComputation = mReactor.autoRun(new ReactorComputationFunction() {
+                @Override
+                public void react(ReactorComputation reactorComputation) {
+                    onSourceChanged(reactorComputation);
+                }
+            });
+        } finally {
+            mReactor.setCurrentReactorComputation(previous);
+        }
+    }
+
+    private void onSourceChanged(ReactorComputation reactorComputation) {
+        final T value = mSource.compute();
+        if (reactorComputation.isFirstRun()) {
+            mValue = value;
+            return;
+        }
+
+        mLatest = value;
+        mHasLatest = true;
+        final ReactorScheduler scheduler = mReactor.getScheduler();
+        switch (mMode) {
+            case DEBOUNCE:
+                if (mTimerScheduled) {
+                    scheduler.cancel(mTimeoutRunnable);
+                }
+                startTimer(mIntervalMillis);
+                break;
+            case THROTTLE:
+                if (!mTimerScheduled) {
+                    publishLatest();
+                    startTimer(mIntervalMillis);
+                }
+                break;
+            case SAMPLE:
+                if (!mTimerScheduled) {
+                    final long intervalNanos = TimeUnit.MILLISECONDS.toNanos(mIntervalMillis);
+                    final long intoPeriod = intervalNanos > 0
+                            ? (scheduler.nanoTime() - mStartNanos) % intervalNanos
+                            : 0;
+                    startTimer(TimeUnit.NANOSECONDS.toMillis(intervalNanos - intoPeriod));
+                }
+                break;
+        }
+    }
+
+    private void startTimer(long delayMillis) {
+        mTimerScheduled = true;
+        mReactor.getScheduler().scheduleDelayed(mTimeoutRunnable, delayMillis);
+    }
+
+    private void onTimeout() {
+        mTimerScheduled = false;
+        if (mComputation.isStopped() || !mHasLatest) {
+            return;
+        }
+
+        publishLatest();
+        if (mMode == THROTTLE) {
+            // keep the window open, so a change right after a trailing value waits again
+            startTimer(mIntervalMillis);
+        }
+    }
+
+    private void publishLatest() {
+        final T value = mLatest;
+        mLatest = null;
+        mHasLatest = false;
+        if (!mEquivalence.equivalent(mValue, value)) {
+            mValue = value;
+            mDependency.changed();
+        }
+    }
+
+    /**
+     * Gets the last published value, and adds a dependency
+     *
+     * @return the published value
+     */
+    public T getValue() {
+        mDependency.depend();
+        return mValue;
+    }
+
+    /**
+     * Gets the last published value without creating a dependency
+     *
+     * @return the published value
+     */
+    public T getRawValue() {
+        return mValue;
+    }
+
+    /**
+     * Stops following the source and drops any value waiting to be published
+     */
+    public void stop() {
+        mComputation.stop();
+        if (mTimerScheduled) {
+            mTimerScheduled = false;
+            mReactor.getScheduler().cancel(mTimeoutRunnable);
+        }
+        mLatest = null;
+        mHasLatest = false;
+    }
+
+    public boolean isStopped() {
+        return mComputation.isStopped();
+    }
+
+    public ReactorDependency getDependency() {
+        return mDependency;
+    }
+}
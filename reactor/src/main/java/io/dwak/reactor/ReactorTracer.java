@@ -0,0 +1,177 @@
+package io.dwak.reactor;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+
+/**
+ * Records what a {@link Reactor} does into a preallocated ring buffer of fixed size events, so
+ * tracing doesn't allocate or build strings while the graph runs. Once full, the oldest events
+ * are overwritten. The buffer can be exported in the Chrome trace event format, which
+ * chrome://tracing and Perfetto open.
+ * <p>
+ * A tracer records on its reactor's thread only and isn't thread safe. Install one with
+ * {@link Reactor#setTracer(ReactorTracer)}; without one the only cost is a null check.
+ */
+public class ReactorTracer {
+    public static final int DEFAULT_CAPACITY = 1 << 14;
+
+    static final byte COMPUTE_START = 0;
+    static final byte COMPUTE_END = 1;
+    static final byte INVALIDATE = 2;
+    static final byte FLUSH_START = 3;
+    static final byte FLUSH_END = 4;
+    static final byte FAN_OUT = 5;
+
+    private final int mMask;
+
+    /**
+     * Thread the tracer was created on, normally its reactor's thread
+     */
+    private final long mThreadId;
+
+    /**
+     * Exported timestamps are relative to the tracer's creation, so they are never negative
+     */
+    private final long mOriginNanos;
+    private final long[] mTimestamps;
+    private final byte[] mTypes;
+    private final int[] mIds;
+    private final int[] mArguments;
+
+    /**
+     * Number of events recorded since the last clear, including overwritten ones
+     */
+    private long mCount;
+
+    public ReactorTracer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity number of events kept, rounded up to a power of two
+     */
+    public ReactorTracer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        int rounded = Integer.highestOneBit(Math.min(capacity, 1 << 30));
+        if (rounded < capacity && rounded < 1 << 30) {
+            rounded <<= 1;
+        }
+        mThreadId = Thread.currentThread().getId();
+        mOriginNanos = System.nanoTime();
+        mMask = rounded - 1;
+        mTimestamps = new long[rounded];
+        mTypes = new byte[rounded];
+        mIds = new int[rounded];
+        mArguments = new int[rounded];
+    }
+
+    void record(byte type, int id, int argument) {
+        final int index = (int) (mCount & mMask);
+        mTimestamps[index] = System.nanoTime();
+        mTypes[index] = type;
+        mIds[index] = id;
+        mArguments[index] = argument;
+        mCount++;
+    }
+
+    /**
+     * @return number of events currently held
+     */
+    public int size() {
+        return (int) Math.min(mCount, mMask + 1);
+    }
+
+    /**
+     * @return number of events that were overwritten because the buffer was full
+     */
+    public long getDroppedCount() {
+        return Math.max(0, mCount - (mMask + 1));
+    }
+
+    public void clear() {
+        mCount = 0;
+    }
+
+    /**
+     * @return the held events in Chrome trace event JSON
+     */
+    public String toChromeTrace() {
+        final StringWriter writer = new StringWriter();
+        try {
+            writeChromeTrace(writer);
+        } catch (IOException e) {
+            // StringWriter doesn't throw
+            throw new IllegalStateException(e);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Writes the held events, oldest first, in Chrome trace event JSON. Computations are
+     * duration events named after their id, flushes are duration events and invalidations and
+     * fan-outs are instant events.
+     */
+    public void writeChromeTrace(Writer writer) throws IOException {
+        final long first = mCount - size();
+        writer.write("{\"traceEvents\":[");
+        for (long i = first; i < mCount; i++) {
+            final int index = (int) (i & mMask);
+            if (i != first) {
+                writer.write(',');
+            }
+            writer.write("\n{\"name\":\"");
+            switch (mTypes[index]) {
+                case COMPUTE_START:
+                case COMPUTE_END:
+                case INVALIDATE:
+                    writer.write(mTypes[index] == INVALIDATE ? "invalidate " : "compute ");
+                    writer.write(Integer.toString(mIds[index]));
+                    break;
+                case FLUSH_START:
+                case FLUSH_END:
+                    writer.write("flush");
+                    break;
+                case FAN_OUT:
+                    writer.write("fan-out");
+                    break;
+            }
+            writer.write("\",\"cat\":\"reactor\",\"ph\":\"");
+            switch (mTypes[index]) {
+                case COMPUTE_START:
+                case FLUSH_START:
+                    writer.write('B');
+                    break;
+                case COMPUTE_END:
+                case FLUSH_END:
+                    writer.write('E');
+                    break;
+                default:
+                    writer.write("i\",\"s\":\"t");
+                    break;
+            }
+            writer.write("\",\"ts\":");
+            final long nanos = mTimestamps[index] - mOriginNanos;
+            writer.write(Long.toString(nanos / 1000));
+            writer.write('.');
+            final long fraction = nanos % 1000;
+            if (fraction < 100) {
+                writer.write(fraction < 10 ? "00" : "0");
+            }
+            writer.write(Long.toString(fraction));
+            writer.write(",\"pid\":1,\"tid\":");
+            writer.write(Long.toString(mThreadId));
+            if (mTypes[index] == FAN_OUT) {
+                writer.write(",\"args\":{\"dependency\":");
+                writer.write(Integer.toString(mIds[index]));
+                writer.write(",\"dependents\":");
+                writer.write(Integer.toString(mArguments[index]));
+                writer.write('}');
+            }
+            writer.write('}');
+        }
+        writer.write("\n]}\n");
+    }
+}
@@ -1,20 +1,70 @@
 package io.dwak.reactor;
 
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import io.dwak.reactor.interfaces.ReactorEquivalence;
+
 /**
  * Object that wraps an object and it's {@link io.dwak.reactor.ReactorDependency}
- * If you'd like to use primitive data types, you'll have to handle your own instance of
- * {@link io.dwak.reactor.ReactorDependency} alongside your primitive value
+ * For primitive data types use {@link ReactorIntVar}, {@link ReactorLongVar}, {@link ReactorDoubleVar}
+ * or {@link ReactorBooleanVar}, which don't box the value
  * Created by vishnu on 1/25/15.
  */
-public class ReactorVar<T> {
+public class ReactorVar<T> extends ReactorPendingWrite {
+    /**
+     * Marks that no value is waiting in {@link #mPendingValue}
+     */
+    private static final Object NO_PENDING_VALUE = new Object();
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<ReactorVar, Object> PENDING_VALUE =
+            AtomicReferenceFieldUpdater.newUpdater(ReactorVar.class, Object.class, "mPendingValue");
+
     private T mValue;
     private ReactorDependency mDependency = new ReactorDependency();
 
+    /**
+     * Decides if a write actually changes the value
+     */
+    private ReactorEquivalence<? super T> mEquivalence;
+
+    /**
+     * Number of writes dropped because the value didn't change
+     */
+    private long mSuppressedWriteCount;
+
+    /**
+     * Reactor whose owner thread applies this var's writes
+     */
+    private final Reactor mReactor;
+
+    /**
+     * Latest value written from another thread and not yet applied
+     */
+    private volatile Object mPendingValue = NO_PENDING_VALUE;
+
     public ReactorVar() {
+        this(null);
     }
 
+    /**
+     * Creates a var using {@link ReactorEquivalences#immutableValues()}, so setting an equal
+     * string, boxed primitive or enum doesn't invalidate dependents
+     *
+     * @param value initial value
+     */
     public ReactorVar(T value) {
+        this(value, ReactorEquivalences.<T>immutableValues());
+    }
+
+    /**
+     * @param value       initial value
+     * @param equivalence decides if a write changes the value, see {@link ReactorEquivalences}
+     */
+    public ReactorVar(T value, ReactorEquivalence<? super T> equivalence) {
         mValue = value;
+        mEquivalence = equivalence;
+        mReactor = Reactor.getInstance();
     }
 
     /**
@@ -40,10 +90,26 @@ public class ReactorVar<T> {
     }
 
     /**
-     * Sets the contained value and marks the dependency as changed
+     * Sets the contained value and marks the dependency as changed.
+     * Does nothing if the value is equivalent to the current one.
+     * Called off the reactor's owner thread this is {@link #postValue(Object)}.
      * @param value Value to set
      */
     public void setValue(T value) {
+        if (!mReactor.isOwnerThread()) {
+            postValue(value);
+            return;
+        }
+
+        if (mEquivalence.equivalent(mValue, value)) {
+            mSuppressedWriteCount++;
+            mReactor.recordSuppressedWrite();
+            if (mDependency != null) {
+                mDependency.unchanged();
+            }
+            return;
+        }
+
         this.mValue = value;
         if (mDependency == null)
             mDependency = new ReactorDependency();
@@ -51,6 +117,44 @@ public class ReactorVar<T> {
         mDependency.changed();
     }
 
+    /**
+     * Sets the value from any thread. The write is applied on the reactor's owner thread at the
+     * next flush; writes posted before then are coalesced and only the last one is applied.
+     * @param value Value to set
+     */
+    public void postValue(T value) {
+        if (PENDING_VALUE.getAndSet(this, value) == NO_PENDING_VALUE) {
+            mReactor.postWrite(this);
+        }
+    }
+
+    /**
+     * Applies the value posted with {@link #postValue(Object)}. Called by the reactor on its owner thread.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    void applyPendingWrite() {
+        final Object value = PENDING_VALUE.getAndSet(this, NO_PENDING_VALUE);
+        if (value != NO_PENDING_VALUE) {
+            setValue((T) value);
+        }
+    }
+
+    public ReactorEquivalence<? super T> getEquivalence() {
+        return mEquivalence;
+    }
+
+    public void setEquivalence(ReactorEquivalence<? super T> equivalence) {
+        mEquivalence = equivalence;
+    }
+
+    /**
+     * @return number of {@link #setValue(Object)} calls dropped because the value didn't change
+     */
+    public long getSuppressedWriteCount() {
+        return mSuppressedWriteCount;
+    }
+
     public ReactorDependency getDependency() {
         return mDependency;
     }
@@ -85,7 +189,7 @@ public class ReactorVar<T> {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
 
-        final ReactorVar that = (ReactorVar) o;
+        final ReactorVar<?> that = (ReactorVar<?>) o;
 
         if (mValue != null ? !mValue.equals(that.mValue) : that.mValue != null) return false;
 
@@ -0,0 +1,20 @@
+package io.dwak.reactor.android;
+
+import android.util.Log;
+
+import io.dwak.reactor.interfaces.ReactorLogger;
+
+/**
+ * {@link ReactorLogger} that writes to logcat
+ */
+public class LogcatReactorLogger implements ReactorLogger {
+    @Override
+    public void log(String tag, String message) {
+        Log.d(tag, message);
+    }
+
+    @Override
+    public void log(String tag, String message, Throwable throwable) {
+        Log.e(tag, message, throwable);
+    }
+}
@@ -0,0 +1,54 @@
+package io.dwak.reactor.android;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import io.dwak.reactor.interfaces.ReactorScheduler;
+
+/**
+ * {@link ReactorScheduler} that runs work on a {@link Looper}, the main looper by default.
+ * Immediate work is posted to the front of the queue so a flush runs before pending frames.
+ */
+public class LooperReactorScheduler implements ReactorScheduler {
+    private final Handler mHandler;
+
+    public LooperReactorScheduler() {
+        this(Looper.getMainLooper());
+    }
+
+    public LooperReactorScheduler(Looper looper) {
+        mHandler = new Handler(looper);
+    }
+
+    /**
+     * @return scheduler for the calling thread's looper, or null if the thread has none
+     */
+    public static LooperReactorScheduler forCurrentThread() {
+        final Looper looper = Looper.myLooper();
+        return looper != null ? new LooperReactorScheduler(looper) : null;
+    }
+
+    public static Thread mainThread() {
+        return Looper.getMainLooper().getThread();
+    }
+
+    @Override
+    public void schedule(Runnable runnable) {
+        mHandler.postAtFrontOfQueue(runnable);
+    }
+
+    @Override
+    public void scheduleDelayed(Runnable runnable, long delayMillis) {
+        mHandler.postDelayed(runnable, delayMillis);
+    }
+
+    @Override
+    public void cancel(Runnable runnable) {
+        mHandler.removeCallbacks(runnable);
+    }
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+}
@@ -0,0 +1,94 @@
+package io.dwak.reactor.android;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.Bundle;
+import android.view.View;
+
+import io.dwak.reactor.ReactorScope;
+
+/**
+ * Ties a {@link ReactorScope} to Android lifecycles, so computations stop recomputing while
+ * their views are off screen and are stopped when their Activity goes away.
+ */
+public final class ReactorLifecycle {
+    private ReactorLifecycle() {
+    }
+
+    /**
+     * Pauses the scope while the view is detached from its window and resumes it when the view
+     * is attached again
+     *
+     * @param view  view whose attach state drives the scope
+     * @param scope scope to pause and resume
+     * @return the listener added to the view, to remove it later
+     */
+    public static View.OnAttachStateChangeListener bindToView(View view, final ReactorScope scope) {
+        final View.OnAttachStateChangeListener listener = new View.OnAttachStateChangeListener() {
+            @Override
+            public void onViewAttachedToWindow(View v) {
+                scope.resume();
+            }
+
+            @Override
+            public void onViewDetachedFromWindow(View v) {
+                scope.pause();
+            }
+        };
+        if (view.getWindowToken() == null) {
+            scope.pause();
+        }
+        view.addOnAttachStateChangeListener(listener);
+        return listener;
+    }
+
+    /**
+     * Resumes the scope while the activity is started, pauses it while stopped, and stops the
+     * scope when the activity is destroyed, for example on rotation
+     *
+     * @param activity activity whose lifecycle drives the scope
+     * @param scope    scope to pause, resume and stop
+     */
+    public static void bindToActivity(final Activity activity, final ReactorScope scope) {
+        final Application application = activity.getApplication();
+        application.registerActivityLifecycleCallbacks(new Application.ActivityLifecycleCallbacks() {
+            @Override
+            public void onActivityCreated(Activity a, Bundle savedInstanceState) {
+            }
+
+            @Override
+            public void onActivityStarted(Activity a) {
+                if (a == activity) {
+                    scope.resume();
+                }
+            }
+
+            @Override
+            public void onActivityResumed(Activity a) {
+            }
+
+            @Override
+            public void onActivityPaused(Activity a) {
+            }
+
+            @Override
+            public void onActivityStopped(Activity a) {
+                if (a == activity) {
+                    scope.pause();
+                }
+            }
+
+            @Override
+            public void onActivitySaveInstanceState(Activity a, Bundle outState) {
+            }
+
+            @Override
+            public void onActivityDestroyed(Activity a) {
+                if (a == activity) {
+                    scope.stop();
+                    application.unregisterActivityLifecycleCallbacks(this);
+                }
+            }
+        });
+    }
+}
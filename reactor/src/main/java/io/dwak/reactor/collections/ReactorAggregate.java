@@ -0,0 +1,66 @@
+package io.dwak.reactor.collections;
+
+import io.dwak.reactor.ReactorDependency;
+import io.dwak.reactor.ReactorEquivalences;
+import io.dwak.reactor.interfaces.ReactorEquivalence;
+
+/**
+ * A value aggregated from a {@link ReactorList}, such as a count, sum, minimum or maximum.
+ * It is updated from each element level change instead of rescanning the list, and computations
+ * that read it are only invalidated when the aggregated value actually changes.
+ */
+public class ReactorAggregate<T> {
+    private final ReactorDependency mDependency = new ReactorDependency();
+    private final ReactorEquivalence<T> mEquivalence = ReactorEquivalences.equality();
+    private ReactorListAggregator<?, T> mAggregator;
+    private T mValue;
+
+    ReactorAggregate() {
+    }
+
+    void setAggregator(ReactorListAggregator<?, T> aggregator) {
+        mAggregator = aggregator;
+    }
+
+    void update(T value) {
+        if (!mEquivalence.equivalent(mValue, value)) {
+            mValue = value;
+            mDependency.changed();
+        }
+    }
+
+    /**
+     * Gets the value, and adds a dependency
+     *
+     * @return the aggregated value
+     */
+    public T getValue() {
+        mDependency.depend();
+        return mValue;
+    }
+
+    /**
+     * Gets the value without creating a dependency
+     *
+     * @return the aggregated value
+     */
+    public T getRawValue() {
+        return mValue;
+    }
+
+    /**
+     * Stops following the source list. The last value stays readable.
+     */
+    public void detach() {
+        mAggregator.detach();
+    }
+
+    public ReactorDependency getDependency() {
+        return mDependency;
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(mValue);
+    }
+}
@@ -0,0 +1,427 @@
+package io.dwak.reactor.collections;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+import io.dwak.reactor.Reactor;
+import io.dwak.reactor.ReactorDependency;
+import io.dwak.reactor.ReactorEquivalences;
+import io.dwak.reactor.interfaces.ReactorDoubleMapper;
+import io.dwak.reactor.interfaces.ReactorEquivalence;
+import io.dwak.reactor.interfaces.ReactorListObserver;
+import io.dwak.reactor.interfaces.ReactorMapper;
+import io.dwak.reactor.interfaces.ReactorPredicate;
+
+/**
+ * Reactive list with fine grained dependencies. Reading an index only depends on that index,
+ * {@link #size()} only on elements being added or removed, and iteration on the whole list.
+ * Inserting or removing invalidates the indexes at and after the position, whose elements shift.
+ * Like the other reactive data sources it must be changed on its reactor's owner thread.
+ * <p>
+ * {@link #map(ReactorMapper)}, {@link #filter(ReactorPredicate)}, {@link #sortBy(Comparator)} and
+ * {@link #distinct()} derive read only lists that are kept up to date from element level changes,
+ * instead of being rebuilt whenever the source changes. {@link #count(ReactorPredicate)},
+ * {@link #sum(ReactorDoubleMapper)}, {@link #min(Comparator)}, {@link #max(Comparator)} and
+ * {@link #groupBy(ReactorMapper)} are maintained the same way.
+ */
+public class ReactorList<E> implements Iterable<E> {
+    private final ArrayList<E> mList;
+
+    /**
+     * Per index dependencies, null where no computation read the index
+     */
+    private final ArrayList<ReactorDependency> mIndexDependencies;
+
+    /**
+     * Changes when elements are added or removed
+     */
+    private final ReactorDependency mSizeDependency = new ReactorDependency();
+
+    /**
+     * Changes on every mutation
+     */
+    private final ReactorDependency mContentsDependency = new ReactorDependency();
+
+    private final ReactorEquivalence<? super E> mEquivalence;
+
+    /**
+     * Observers of element level changes
+     */
+    private final ArrayList<ReactorListObserver<? super E>> mObservers = new ArrayList<ReactorListObserver<? super E>>();
+
+    /**
+     * Keeps a derived list up to date, null for lists that can be changed directly
+     */
+    private ReactorListOperator<?, E> mOperator;
+
+    /**
+     * Set on lists that are maintained by an operator or a group by
+     */
+    private boolean mReadOnly;
+
+    /**
+     * Creates a list using {@link ReactorEquivalences#immutableValues()} to detect unchanged elements
+     */
+    public ReactorList() {
+        this(ReactorEquivalences.<E>immutableValues());
+    }
+
+    /**
+     * @param equivalence decides if setting an element changes it
+     */
+    public ReactorList(ReactorEquivalence<? super E> equivalence) {
+        mList = new ArrayList<E>();
+        mIndexDependencies = new ArrayList<ReactorDependency>();
+        mEquivalence = equivalence;
+    }
+
+    /**
+     * Gets the element at the index, and adds a dependency on that index only
+     *
+     * @param index index to read
+     * @return the element
+     */
+    public E get(int index) {
+        final E element = mList.get(index);
+        dependOnIndex(index);
+        return element;
+    }
+
+    /**
+     * @return number of elements, depending on elements being added or removed
+     */
+    public int size() {
+        mSizeDependency.depend();
+        return mList.size();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @return index of the element, depending on the whole list
+     */
+    public int indexOf(E element) {
+        mContentsDependency.depend();
+        return mList.indexOf(element);
+    }
+
+    public boolean contains(E element) {
+        return indexOf(element) >= 0;
+    }
+
+    /**
+     * @return read only iterator, depending on the whole list
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return asList().iterator();
+    }
+
+    /**
+     * @return read only view of the list, depending on the whole list
+     */
+    public List<E> asList() {
+        mContentsDependency.depend();
+        return Collections.unmodifiableList(mList);
+    }
+
+    /**
+     * Replaces the element at the index, invalidating readers of that index.
+     * Does nothing if the element is equivalent to the current one.
+     *
+     * @return the previous element
+     */
+    public E set(int index, E element) {
+        checkWritable();
+        return replace(index, element);
+    }
+
+    public void add(E element) {
+        add(mList.size(), element);
+    }
+
+    /**
+     * Inserts an element, invalidating readers of the size and of the indexes that shift
+     */
+    public void add(int index, E element) {
+        checkWritable();
+        insert(index, element);
+    }
+
+    public void addAll(Collection<? extends E> elements) {
+        for (E element : elements) {
+            add(element);
+        }
+    }
+
+    /**
+     * Removes the element at the index, invalidating readers of the size and of the indexes that shift
+     *
+     * @return the removed element
+     */
+    public E remove(int index) {
+        checkWritable();
+        return removeAt(index);
+    }
+
+    public void clear() {
+        checkWritable();
+        if (mList.isEmpty()) {
+            return;
+        }
+
+        final boolean notify = !mObservers.isEmpty();
+        final ArrayList<E> removed = notify ? new ArrayList<E>(mList) : null;
+        mList.clear();
+        indexesChangedFrom(0);
+        mSizeDependency.changed();
+        mContentsDependency.changed();
+        if (notify) {
+            for (int i = removed.size() - 1; i >= 0; i--) {
+                notifyRemoved(i, removed.get(i));
+            }
+        }
+    }
+
+    E replace(int index, E element) {
+        final E previous = mList.get(index);
+        if (mEquivalence.equivalent(previous, element)) {
+            final ReactorDependency dependency = index < mIndexDependencies.size() ? mIndexDependencies.get(index) : null;
+            if (dependency != null) {
+                dependency.unchanged();
+            }
+            mContentsDependency.unchanged();
+            return previous;
+        }
+
+        mList.set(index, element);
+        indexChanged(index);
+        mContentsDependency.changed();
+        for (int i = 0; i < mObservers.size(); i++) {
+            mObservers.get(i).onReplaced(index, previous, element);
+        }
+        return previous;
+    }
+
+    void insert(int index, E element) {
+        mList.add(index, element);
+        indexesChangedFrom(index);
+        mSizeDependency.changed();
+        mContentsDependency.changed();
+        for (int i = 0; i < mObservers.size(); i++) {
+            mObservers.get(i).onInserted(index, element);
+        }
+    }
+
+    E removeAt(int index) {
+        final E removed = mList.remove(index);
+        indexesChangedFrom(index);
+        mSizeDependency.changed();
+        mContentsDependency.changed();
+        notifyRemoved(index, removed);
+        return removed;
+    }
+
+    private void notifyRemoved(int index, E element) {
+        for (int i = 0; i < mObservers.size(); i++) {
+            mObservers.get(i).onRemoved(index, element);
+        }
+    }
+
+    private void checkWritable() {
+        if (mReadOnly) {
+            throw new UnsupportedOperationException("Derived ReactorList can't be changed directly");
+        }
+    }
+
+    /**
+     * Registers an observer of element level changes. Observers are called synchronously during each change.
+     */
+    public void addObserver(ReactorListObserver<? super E> observer) {
+        mObservers.add(observer);
+    }
+
+    public void removeObserver(ReactorListObserver<? super E> observer) {
+        mObservers.remove(observer);
+    }
+
+    /**
+     * Derives a list of mapped elements. The mapper runs once per inserted or replaced element.
+     */
+    public <R> ReactorList<R> map(ReactorMapper<? super E, ? extends R> mapper) {
+        return ReactorListOperator.map(this, mapper);
+    }
+
+    /**
+     * Derives a list of the elements passing the predicate, in source order.
+     * The predicate runs once per inserted or replaced element.
+     */
+    public ReactorList<E> filter(ReactorPredicate<? super E> predicate) {
+        return ReactorListOperator.filter(this, predicate);
+    }
+
+    /**
+     * Derives a list sorted by the comparator. Elements that compare equal keep their
+     * insertion order. Each change costs a binary search and one insert or remove.
+     */
+    public ReactorList<E> sortBy(Comparator<? super E> comparator) {
+        return ReactorListOperator.sortBy(this, comparator);
+    }
+
+    /**
+     * Derives a list without duplicates, ordered by when each element first became present
+     */
+    public ReactorList<E> distinct() {
+        return ReactorListOperator.distinct(this);
+    }
+
+    /**
+     * Counts the elements passing the predicate, updated as elements change
+     */
+    public ReactorAggregate<Integer> count(ReactorPredicate<? super E> predicate) {
+        return ReactorListAggregator.count(this, predicate);
+    }
+
+    /**
+     * Sums the mapped elements, updated as elements change
+     */
+    public ReactorAggregate<Double> sum(ReactorDoubleMapper<? super E> mapper) {
+        return ReactorListAggregator.sum(this, mapper);
+    }
+
+    /**
+     * Tracks the smallest element, null while the list is empty. Each change costs O(log n).
+     */
+    public ReactorAggregate<E> min(Comparator<? super E> comparator) {
+        return ReactorListAggregator.min(this, comparator);
+    }
+
+    /**
+     * Tracks the largest element, null while the list is empty. Each change costs O(log n).
+     */
+    public ReactorAggregate<E> max(Comparator<? super E> comparator) {
+        return ReactorListAggregator.max(this, comparator);
+    }
+
+    /**
+     * Groups the elements by key into a read only map of read only lists. Reading a key of the map
+     * only depends on that group existing, and reading a group only on that group's elements.
+     * {@link ReactorMap#detach()} stops the map from following this list.
+     */
+    public <K> ReactorMap<K, ReactorList<E>> groupBy(ReactorMapper<? super E, ? extends K> keyMapper) {
+        return ReactorListAggregator.groupBy(this, keyMapper);
+    }
+
+    /**
+     * Stops a derived list from following its source. It keeps its last contents.
+     */
+    public void detach() {
+        if (mOperator != null) {
+            mOperator.detach();
+        }
+    }
+
+    void setOperator(ReactorListOperator<?, E> operator) {
+        mOperator = operator;
+        mReadOnly = true;
+    }
+
+    void setReadOnly() {
+        mReadOnly = true;
+    }
+
+    /**
+     * Gets the element without creating a dependency
+     */
+    public E getRaw(int index) {
+        return mList.get(index);
+    }
+
+    /**
+     * @return index of the element, without creating a dependency
+     */
+    public int rawIndexOf(E element) {
+        return mList.indexOf(element);
+    }
+
+    /**
+     * @return number of elements, without creating a dependency
+     */
+    public int rawSize() {
+        return mList.size();
+    }
+
+    private void dependOnIndex(int index) {
+        if (!Reactor.getInstance().isActive()) {
+            return;
+        }
+
+        while (mIndexDependencies.size() <= index) {
+            mIndexDependencies.add(null);
+        }
+        ReactorDependency dependency = mIndexDependencies.get(index);
+        if (dependency == null) {
+            dependency = new ReactorDependency();
+            mIndexDependencies.set(index, dependency);
+        }
+        dependency.depend();
+    }
+
+    private void indexChanged(int index) {
+        if (index < mIndexDependencies.size()) {
+            changeIndexDependency(index);
+        }
+    }
+
+    private void indexesChangedFrom(int index) {
+        for (int i = index; i < mIndexDependencies.size(); i++) {
+            changeIndexDependency(i);
+        }
+
+        // indexes past the end have no readers left to track
+        for (int i = mIndexDependencies.size() - 1; i >= mList.size(); i--) {
+            if (mIndexDependencies.get(i) != null) {
+                break;
+            }
+            mIndexDependencies.remove(i);
+        }
+    }
+
+    /**
+     * Invalidates the readers of the index, and drops its dependency once nobody depends on it,
+     * so indexes read once don't keep a dependency each for the life of the list
+     */
+    private void changeIndexDependency(int index) {
+        final ReactorDependency dependency = mIndexDependencies.get(index);
+        if (dependency != null) {
+            dependency.changed();
+            if (!dependency.hasDependants()) {
+                mIndexDependencies.set(index, null);
+            }
+        }
+    }
+
+    /**
+     * @return number of indexes holding a dependency
+     */
+    int getIndexDependencyCount() {
+        int count = 0;
+        for (int i = 0; i < mIndexDependencies.size(); i++) {
+            if (mIndexDependencies.get(i) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return mList.toString();
+    }
+}
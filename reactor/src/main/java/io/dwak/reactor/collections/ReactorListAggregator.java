@@ -0,0 +1,404 @@
+package io.dwak.reactor.collections;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.TreeMap;
+
+import io.dwak.reactor.interfaces.ReactorDoubleMapper;
+import io.dwak.reactor.interfaces.ReactorListObserver;
+import io.dwak.reactor.interfaces.ReactorMapper;
+import io.dwak.reactor.interfaces.ReactorPredicate;
+
+/**
+ * Keeps a {@link ReactorAggregate} up to date from the element level changes of a
+ * {@link ReactorList}. Each aggregator remembers what every source index contributed and takes
+ * that back out on removal, so an element changed in place and then set again is removed as it
+ * was inserted.
+ */
+abstract class ReactorListAggregator<E, T> implements ReactorListObserver<E> {
+    final ReactorList<E> mSource;
+    final ReactorAggregate<T> mOutput;
+
+    ReactorListAggregator(ReactorList<E> source) {
+        mSource = source;
+        mOutput = new ReactorAggregate<T>();
+        mOutput.setAggregator(this);
+    }
+
+    /**
+     * Feeds the current source contents through the aggregator and starts following changes
+     */
+    final ReactorAggregate<T> attach() {
+        for (int i = 0; i < mSource.rawSize(); i++) {
+            onInserted(i, mSource.getRaw(i));
+        }
+        publish();
+        mSource.addObserver(this);
+        return mOutput;
+    }
+
+    final void detach() {
+        mSource.removeObserver(this);
+    }
+
+    /**
+     * Hands the current value to the output
+     */
+    abstract void publish();
+
+    @Override
+    public void onReplaced(int index, E previous, E element) {
+        onRemoved(index, previous);
+        onInserted(index, element);
+    }
+
+    static <E> ReactorAggregate<Integer> count(ReactorList<E> source, ReactorPredicate<? super E> predicate) {
+        return new CountAggregator<E>(source, predicate).attach();
+    }
+
+    static <E> ReactorAggregate<Double> sum(ReactorList<E> source, ReactorDoubleMapper<? super E> mapper) {
+        return new SumAggregator<E>(source, mapper).attach();
+    }
+
+    static <E> ReactorAggregate<E> min(ReactorList<E> source, Comparator<? super E> comparator) {
+        return new ExtremeAggregator<E>(source, comparator, false).attach();
+    }
+
+    static <E> ReactorAggregate<E> max(ReactorList<E> source, Comparator<? super E> comparator) {
+        return new ExtremeAggregator<E>(source, comparator, true).attach();
+    }
+
+    static <E, K> ReactorMap<K, ReactorList<E>> groupBy(ReactorList<E> source, ReactorMapper<? super E, ? extends K> keyMapper) {
+        final GroupByObserver<E, K> observer = new GroupByObserver<E, K>(source, keyMapper);
+        for (int i = 0; i < source.rawSize(); i++) {
+            observer.onInserted(i, source.getRaw(i));
+        }
+        source.addObserver(observer);
+        return observer.mGroups;
+    }
+
+    private static final class CountAggregator<E> extends ReactorListAggregator<E, Integer> {
+        private final ReactorPredicate<? super E> mPredicate;
+
+        /**
+         * Whether each source index was counted
+         */
+        private final ReactorPrefixCounts mCounted = new ReactorPrefixCounts();
+        private int mCount;
+
+        CountAggregator(ReactorList<E> source, ReactorPredicate<? super E> predicate) {
+            super(source);
+            mPredicate = predicate;
+        }
+
+        @Override
+        void publish() {
+            mOutput.update(mCount);
+        }
+
+        @Override
+        public void onInserted(int index, E element) {
+            final boolean counted = ReactorListOperator.testUntracked(mPredicate, element);
+            mCounted.insert(index, counted);
+            if (counted) {
+                mCount++;
+                publish();
+            }
+        }
+
+        @Override
+        public void onRemoved(int index, E element) {
+            if (mCounted.remove(index)) {
+                mCount--;
+                publish();
+            }
+        }
+
+        @Override
+        public void onReplaced(int index, E previous, E element) {
+            final boolean counted = ReactorListOperator.testUntracked(mPredicate, element);
+            if (mCounted.set(index, counted) != counted) {
+                mCount += counted ? 1 : -1;
+                publish();
+            }
+        }
+    }
+
+    /**
+     * Adds and subtracts each change, so rounding errors of fractional values can build up over
+     * many changes. Whole numbers below 2^53 stay exact.
+     */
+    private static final class SumAggregator<E> extends ReactorListAggregator<E, Double> {
+        private final ReactorDoubleMapper<? super E> mMapper;
+
+        /**
+         * What each source index added to the sum
+         */
+        private double[] mValues = new double[16];
+        private int mSize;
+        private double mSum;
+
+        SumAggregator(ReactorList<E> source, ReactorDoubleMapper<? super E> mapper) {
+            super(source);
+            mMapper = mapper;
+        }
+
+        @Override
+        void publish() {
+            mOutput.update(mSum);
+        }
+
+        @Override
+        public void onInserted(int index, E element) {
+            final double value = ReactorListOperator.mapDoubleUntracked(mMapper, element);
+            if (mSize == mValues.length) {
+                final double[] grown = new double[mSize * 2];
+                System.arraycopy(mValues, 0, grown, 0, mSize);
+                mValues = grown;
+            }
+            System.arraycopy(mValues, index, mValues, index + 1, mSize - index);
+            mValues[index] = value;
+            mSize++;
+            mSum += value;
+            publish();
+        }
+
+        @Override
+        public void onRemoved(int index, E element) {
+            mSum -= mValues[index];
+            System.arraycopy(mValues, index + 1, mValues, index, mSize - index - 1);
+            mSize--;
+            publish();
+        }
+
+        @Override
+        public void onReplaced(int index, E previous, E element) {
+            final double value = ReactorListOperator.mapDoubleUntracked(mMapper, element);
+            mSum += value - mValues[index];
+            mValues[index] = value;
+            publish();
+        }
+    }
+
+    /**
+     * Keeps the elements in a sorted multiset, each key holding the elements that compare equal
+     * to it, so the minimum or maximum is found in O(log n) after any change. The key of each
+     * entry is the first element it holds.
+     */
+    private static final class ExtremeAggregator<E> extends ReactorListAggregator<E, E> {
+        private final TreeMap<E, ArrayList<E>> mElements;
+
+        /**
+         * Entry each source index was added to
+         */
+        private final ArrayList<ArrayList<E>> mEntries = new ArrayList<ArrayList<E>>();
+        private final boolean mMax;
+
+        ExtremeAggregator(ReactorList<E> source, Comparator<? super E> comparator, boolean max) {
+            super(source);
+            mElements = new TreeMap<E, ArrayList<E>>(comparator);
+            mMax = max;
+        }
+
+        @Override
+        void publish() {
+            if (mElements.isEmpty()) {
+                mOutput.update(null);
+            }
+            else {
+                mOutput.update(mMax ? mElements.lastKey() : mElements.firstKey());
+            }
+        }
+
+        @Override
+        public void onInserted(int index, E element) {
+            ArrayList<E> equal = mElements.get(element);
+            if (equal == null) {
+                equal = new ArrayList<E>(1);
+                mElements.put(element, equal);
+            }
+            equal.add(element);
+            mEntries.add(index, equal);
+            publish();
+        }
+
+        @Override
+        public void onRemoved(int index, E element) {
+            final ArrayList<E> equal = mEntries.remove(index);
+            final E key = equal.get(0);
+            int position = equal.size() - 1;
+            while (position >= 0 && equal.get(position) != element) {
+                position--;
+            }
+            if (position < 0) {
+                throw new IllegalStateException("Aggregate lost track of " + element);
+            }
+            equal.remove(position);
+            if (position > 0) {
+                publish();
+                return;
+            }
+
+            // the key has to stay one of the elements that are still present
+            removeEntry(key, equal);
+            if (!equal.isEmpty()) {
+                mElements.put(equal.get(0), equal);
+            }
+            publish();
+        }
+
+        /**
+         * Removes the entry, searching for it by identity if its key was changed in place and no
+         * longer sorts where it sits
+         */
+        private void removeEntry(E key, ArrayList<E> equal) {
+            if (mElements.get(key) == equal) {
+                mElements.remove(key);
+                return;
+            }
+            final Iterator<ArrayList<E>> entries = mElements.values().iterator();
+            while (entries.hasNext()) {
+                if (entries.next() == equal) {
+                    entries.remove();
+                    return;
+                }
+            }
+            throw new IllegalStateException("Aggregate lost track of " + key);
+        }
+    }
+
+    /**
+     * Splits the source into a group per key. The groups are read only lists held in a read only
+     * map, so computations reading one group are not invalidated by changes to another.
+     * Each group keeps its elements in the order they joined it, and empty groups are removed.
+     * Every source element remembers its group and its slot there, so a removal finds its
+     * position by counting the live slots before it instead of searching the group.
+     */
+    static final class GroupByObserver<E, K> implements ReactorListObserver<E> {
+        private final ReactorList<E> mSource;
+        private final ReactorMapper<? super E, ? extends K> mKeyMapper;
+        private final ReactorMap<K, ReactorList<E>> mGroups = new ReactorMap<K, ReactorList<E>>();
+
+        /**
+         * Mirrors the groups without creating dependencies
+         */
+        private final HashMap<K, Group<E, K>> mGroupsByKey = new HashMap<K, Group<E, K>>();
+
+        /**
+         * Group membership of each source element, by source index
+         */
+        private final ArrayList<Member<E, K>> mMembers = new ArrayList<Member<E, K>>();
+
+        GroupByObserver(ReactorList<E> source, ReactorMapper<? super E, ? extends K> keyMapper) {
+            mSource = source;
+            mKeyMapper = keyMapper;
+            mGroups.setGroupBy(this);
+        }
+
+        void detach() {
+            mSource.removeObserver(this);
+        }
+
+        @Override
+        public void onInserted(int index, E element) {
+            final K key = ReactorListOperator.<E, K>mapUntracked(mKeyMapper, element);
+            Group<E, K> group = mGroupsByKey.get(key);
+            if (group == null) {
+                group = new Group<E, K>(key);
+                mGroupsByKey.put(key, group);
+                mGroups.putEntry(key, group.mList);
+            }
+            mMembers.add(index, group.join(element));
+        }
+
+        @Override
+        public void onRemoved(int index, E element) {
+            final Member<E, K> member = mMembers.remove(index);
+            final Group<E, K> group = member.mGroup;
+            group.leave(member);
+            if (group.mList.rawSize() == 0) {
+                mGroupsByKey.remove(group.mKey);
+                mGroups.removeKey(group.mKey);
+            }
+        }
+
+        @Override
+        public void onReplaced(int index, E previous, E element) {
+            final K key = ReactorListOperator.<E, K>mapUntracked(mKeyMapper, element);
+            final Member<E, K> member = mMembers.get(index);
+            final K previousKey = member.mGroup.mKey;
+            if (key == null ? previousKey == null : key.equals(previousKey)) {
+                member.mGroup.mList.replace(member.mGroup.indexOf(member), element);
+                return;
+            }
+            onRemoved(index, previous);
+            onInserted(index, element);
+        }
+    }
+
+    /**
+     * A group's elements, with a slot per element in the order they joined. Slots of elements
+     * that left are compacted once they outnumber the live ones.
+     */
+    private static final class Group<E, K> {
+        final K mKey;
+        final ReactorList<E> mList = new ReactorList<E>();
+        private final ReactorPrefixCounts mLiveSlots = new ReactorPrefixCounts();
+        private final ArrayList<Member<E, K>> mSlots = new ArrayList<Member<E, K>>();
+
+        Group(K key) {
+            mKey = key;
+            mList.setReadOnly();
+        }
+
+        Member<E, K> join(E element) {
+            final Member<E, K> member = new Member<E, K>(this, mSlots.size());
+            mSlots.add(member);
+            mLiveSlots.insert(member.mSlot, true);
+            mList.insert(mList.rawSize(), element);
+            return member;
+        }
+
+        void leave(Member<E, K> member) {
+            final int index = indexOf(member);
+            mLiveSlots.set(member.mSlot, false);
+            mSlots.set(member.mSlot, null);
+            mList.removeAt(index);
+            if (mSlots.size() > 16 && mSlots.size() > mList.rawSize() * 2) {
+                compact();
+            }
+        }
+
+        int indexOf(Member<E, K> member) {
+            return mLiveSlots.countBefore(member.mSlot);
+        }
+
+        private void compact() {
+            int live = 0;
+            for (int i = 0; i < mSlots.size(); i++) {
+                final Member<E, K> member = mSlots.get(i);
+                if (member != null) {
+                    member.mSlot = live;
+                    mSlots.set(live++, member);
+                }
+            }
+            mSlots.subList(live, mSlots.size()).clear();
+            mLiveSlots.clear();
+            for (int i = 0; i < live; i++) {
+                mLiveSlots.insert(i, true);
+            }
+        }
+    }
+
+    private static final class Member<E, K> {
+        final Group<E, K> mGroup;
+        int mSlot;
+
+        Member(Group<E, K> group, int slot) {
+            mGroup = group;
+            mSlot = slot;
+        }
+    }
+}
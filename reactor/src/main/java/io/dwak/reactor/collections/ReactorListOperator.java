@@ -0,0 +1,336 @@
+package io.dwak.reactor.collections;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+
+import io.dwak.reactor.Reactor;
+import io.dwak.reactor.ReactorComputation;
+import io.dwak.reactor.ReactorEquivalences;
+import io.dwak.reactor.interfaces.ReactorDoubleMapper;
+import io.dwak.reactor.interfaces.ReactorListObserver;
+import io.dwak.reactor.interfaces.ReactorMapper;
+import io.dwak.reactor.interfaces.ReactorPredicate;
+
+/**
+ * Keeps a derived {@link ReactorList} up to date by translating each element level change of
+ * the source into the matching changes of the output, so the work done is proportional to the
+ * change and not to the size of the list.
+ */
+abstract class ReactorListOperator<S, R> implements ReactorListObserver<S> {
+    final ReactorList<S> mSource;
+    final ReactorList<R> mOutput;
+
+    ReactorListOperator(ReactorList<S> source) {
+        mSource = source;
+        // the output always reflects the source, so every change is passed on
+        mOutput = new ReactorList<R>(ReactorEquivalences.<R>never());
+        mOutput.setOperator(this);
+    }
+
+    /**
+     * Feeds the current source contents through the operator and starts following changes
+     */
+    final ReactorList<R> attach() {
+        for (int i = 0; i < mSource.rawSize(); i++) {
+            onInserted(i, mSource.getRaw(i));
+        }
+        mSource.addObserver(this);
+        return mOutput;
+    }
+
+    final void detach() {
+        mSource.removeObserver(this);
+    }
+
+    static <S, R> ReactorList<R> map(ReactorList<S> source, ReactorMapper<? super S, ? extends R> mapper) {
+        return new MapOperator<S, R>(source, mapper).attach();
+    }
+
+    static <E> ReactorList<E> filter(ReactorList<E> source, ReactorPredicate<? super E> predicate) {
+        return new FilterOperator<E>(source, predicate).attach();
+    }
+
+    static <E> ReactorList<E> sortBy(ReactorList<E> source, Comparator<? super E> comparator) {
+        return new SortOperator<E>(source, comparator).attach();
+    }
+
+    static <E> ReactorList<E> distinct(ReactorList<E> source) {
+        return new DistinctOperator<E>(source).attach();
+    }
+
+    /**
+     * Maps an element with dependency tracking off, so a writer changing the source from inside a
+     * computation does not depend on what the mapper reads
+     */
+    static <I, O> O mapUntracked(ReactorMapper<? super I, ? extends O> mapper, I element) {
+        final Reactor reactor = Reactor.getInstance();
+        final ReactorComputation previous = reactor.beginNonReactive();
+        try {
+            return mapper.map(element);
+        } finally {
+            reactor.endNonReactive(previous);
+        }
+    }
+
+    static <I> boolean testUntracked(ReactorPredicate<? super I> predicate, I element) {
+        final Reactor reactor = Reactor.getInstance();
+        final ReactorComputation previous = reactor.beginNonReactive();
+        try {
+            return predicate.test(element);
+        } finally {
+            reactor.endNonReactive(previous);
+        }
+    }
+
+    static <I> double mapDoubleUntracked(ReactorDoubleMapper<? super I> mapper, I element) {
+        final Reactor reactor = Reactor.getInstance();
+        final ReactorComputation previous = reactor.beginNonReactive();
+        try {
+            return mapper.map(element);
+        } finally {
+            reactor.endNonReactive(previous);
+        }
+    }
+
+    /**
+     * One output element per source element, at the same index
+     */
+    private static final class MapOperator<S, R> extends ReactorListOperator<S, R> {
+        private final ReactorMapper<? super S, ? extends R> mMapper;
+
+        MapOperator(ReactorList<S> source, ReactorMapper<? super S, ? extends R> mapper) {
+            super(source);
+            mMapper = mapper;
+        }
+
+        @Override
+        public void onInserted(int index, S element) {
+            mOutput.insert(index, ReactorListOperator.<S, R>mapUntracked(mMapper, element));
+        }
+
+        @Override
+        public void onRemoved(int index, S element) {
+            mOutput.removeAt(index);
+        }
+
+        @Override
+        public void onReplaced(int index, S previous, S element) {
+            mOutput.replace(index, ReactorListOperator.<S, R>mapUntracked(mMapper, element));
+        }
+    }
+
+    /**
+     * Remembers which source elements passed, so changes never rerun the predicate on other
+     * elements. The output position is the number of passing elements before the change.
+     */
+    private static final class FilterOperator<E> extends ReactorListOperator<E, E> {
+        private final ReactorPredicate<? super E> mPredicate;
+        private final ReactorPrefixCounts mPassed = new ReactorPrefixCounts();
+
+        FilterOperator(ReactorList<E> source, ReactorPredicate<? super E> predicate) {
+            super(source);
+            mPredicate = predicate;
+        }
+
+        @Override
+        public void onInserted(int index, E element) {
+            final boolean passed = testUntracked(mPredicate, element);
+            mPassed.insert(index, passed);
+            if (passed) {
+                mOutput.insert(mPassed.countBefore(index), element);
+            }
+        }
+
+        @Override
+        public void onRemoved(int index, E element) {
+            final int outputIndex = mPassed.countBefore(index);
+            if (mPassed.remove(index)) {
+                mOutput.removeAt(outputIndex);
+            }
+        }
+
+        @Override
+        public void onReplaced(int index, E previous, E element) {
+            final boolean passed = testUntracked(mPredicate, element);
+            final boolean wasPassed = mPassed.set(index, passed);
+            if (wasPassed && passed) {
+                mOutput.replace(mPassed.countBefore(index), element);
+            }
+            else if (wasPassed) {
+                mOutput.removeAt(mPassed.countBefore(index));
+            }
+            else if (passed) {
+                mOutput.insert(mPassed.countBefore(index), element);
+            }
+        }
+    }
+
+    /**
+     * Keeps the output sorted with a binary search per change
+     */
+    private static final class SortOperator<E> extends ReactorListOperator<E, E> {
+        private final Comparator<? super E> mComparator;
+
+        SortOperator(ReactorList<E> source, Comparator<? super E> comparator) {
+            super(source);
+            mComparator = comparator;
+        }
+
+        /**
+         * @return first index whose element compares greater than the element, so equal elements
+         * stay in insertion order
+         */
+        private int upperBound(E element) {
+            int low = 0;
+            int high = mOutput.rawSize();
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                if (mComparator.compare(mOutput.getRaw(mid), element) <= 0) {
+                    low = mid + 1;
+                }
+                else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int lowerBound(E element) {
+            int low = 0;
+            int high = mOutput.rawSize();
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                if (mComparator.compare(mOutput.getRaw(mid), element) < 0) {
+                    low = mid + 1;
+                }
+                else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * @return index of this exact element in the output. The output holds the source's own
+         * references, so the element is matched by identity; an element changed in place since it
+         * was inserted no longer sorts where it sits, so that case falls back to a full scan.
+         */
+        private int find(E element) {
+            final int size = mOutput.rawSize();
+            for (int i = lowerBound(element); i < size && mComparator.compare(mOutput.getRaw(i), element) == 0; i++) {
+                if (mOutput.getRaw(i) == element) {
+                    return i;
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                if (mOutput.getRaw(i) == element) {
+                    return i;
+                }
+            }
+            throw new IllegalStateException("Sorted list lost track of " + element);
+        }
+
+        @Override
+        public void onInserted(int index, E element) {
+            mOutput.insert(upperBound(element), element);
+        }
+
+        @Override
+        public void onRemoved(int index, E element) {
+            mOutput.removeAt(find(element));
+        }
+
+        @Override
+        public void onReplaced(int index, E previous, E element) {
+            onRemoved(index, previous);
+            onInserted(index, element);
+        }
+    }
+
+    /**
+     * Counts occurrences, so only the first insert and the last removal of a value touch the output.
+     * Each distinct value holds a slot, in the order the values appeared, and its output position is
+     * the number of live slots before it. Slots of removed values are compacted once they outnumber
+     * the live ones. Every source index remembers the occurrences it counted towards, so a removal
+     * does not depend on hashing an element that may have changed in place since.
+     */
+    private static final class DistinctOperator<E> extends ReactorListOperator<E, E> {
+        private final HashMap<E, Occurrences<E>> mOccurrences = new HashMap<E, Occurrences<E>>();
+        private final ArrayList<Occurrences<E>> mEntries = new ArrayList<Occurrences<E>>();
+        private final ReactorPrefixCounts mLiveSlots = new ReactorPrefixCounts();
+
+        DistinctOperator(ReactorList<E> source) {
+            super(source);
+        }
+
+        @Override
+        public void onInserted(int index, E element) {
+            Occurrences<E> occurrences = mOccurrences.get(element);
+            if (occurrences != null) {
+                occurrences.mCount++;
+                mEntries.add(index, occurrences);
+                return;
+            }
+
+            final int slot = mLiveSlots.size();
+            occurrences = new Occurrences<E>(element, slot);
+            mOccurrences.put(element, occurrences);
+            mEntries.add(index, occurrences);
+            mLiveSlots.insert(slot, true);
+            mOutput.insert(mOutput.rawSize(), element);
+        }
+
+        @Override
+        public void onRemoved(int index, E element) {
+            final Occurrences<E> occurrences = mEntries.remove(index);
+            if (--occurrences.mCount > 0) {
+                return;
+            }
+
+            if (mOccurrences.get(occurrences.mValue) == occurrences) {
+                mOccurrences.remove(occurrences.mValue);
+            }
+            else if (!mOccurrences.values().remove(occurrences)) {
+                // the value was changed in place, so its hash no longer finds it
+                throw new IllegalStateException("Distinct list lost track of " + occurrences.mValue);
+            }
+            final int outputIndex = mLiveSlots.countBefore(occurrences.mSlot);
+            mLiveSlots.set(occurrences.mSlot, false);
+            mOutput.removeAt(outputIndex);
+            if (mLiveSlots.size() > 16 && mLiveSlots.size() > mOccurrences.size() * 2) {
+                compact();
+            }
+        }
+
+        @Override
+        public void onReplaced(int index, E previous, E element) {
+            onRemoved(index, previous);
+            onInserted(index, element);
+        }
+
+        /**
+         * Renumbers the slots in output order, dropping the ones of removed values
+         */
+        private void compact() {
+            for (Occurrences<E> occurrences : mOccurrences.values()) {
+                occurrences.mSlot = mLiveSlots.countBefore(occurrences.mSlot);
+            }
+            mLiveSlots.clear();
+            for (int i = 0; i < mOccurrences.size(); i++) {
+                mLiveSlots.insert(i, true);
+            }
+        }
+    }
+
+    private static final class Occurrences<E> {
+        final E mValue;
+        int mCount = 1;
+        int mSlot;
+
+        Occurrences(E value, int slot) {
+            mValue = value;
+            mSlot = slot;
+        }
+    }
+}
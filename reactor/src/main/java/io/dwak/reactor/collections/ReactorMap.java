@@ -0,0 +1,287 @@
+package io.dwak.reactor.collections;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import io.dwak.reactor.Reactor;
+import io.dwak.reactor.ReactorDependency;
+import io.dwak.reactor.ReactorEquivalences;
+import io.dwak.reactor.interfaces.ReactorEquivalence;
+
+/**
+ * Reactive map with fine grained dependencies. Reading a key only depends on that key,
+ * {@link #size()} only on keys being added or removed, and iteration on the whole map.
+ * Like the other reactive data sources it must be changed on its reactor's owner thread.
+ */
+public class ReactorMap<K, V> {
+    private final HashMap<K, V> mMap;
+
+    /**
+     * Per key dependencies, created when a computation reads the key
+     */
+    private final HashMap<K, ReactorDependency> mKeyDependencies;
+
+    /**
+     * Changes when keys are added or removed
+     */
+    private final ReactorDependency mSizeDependency = new ReactorDependency();
+
+    /**
+     * Changes on every mutation
+     */
+    private final ReactorDependency mContentsDependency = new ReactorDependency();
+
+    private final ReactorEquivalence<? super V> mEquivalence;
+
+    /**
+     * Set on maps that are maintained by a group by
+     */
+    private boolean mReadOnly;
+
+    /**
+     * Keeps a group by map up to date, null for maps that can be changed directly
+     */
+    private ReactorListAggregator.GroupByObserver<?, K> mGroupBy;
+
+    /**
+     * Creates a map using {@link ReactorEquivalences#immutableValues()} to detect unchanged values
+     */
+    public ReactorMap() {
+        this(ReactorEquivalences.<V>immutableValues());
+    }
+
+    /**
+     * @param equivalence decides if putting a value for an existing key changes it
+     */
+    public ReactorMap(ReactorEquivalence<? super V> equivalence) {
+        mMap = new HashMap<K, V>();
+        mKeyDependencies = new HashMap<K, ReactorDependency>();
+        mEquivalence = equivalence;
+    }
+
+    /**
+     * Gets the value for the key, and adds a dependency on that key only
+     *
+     * @param key key to look up
+     * @return the value, or null if there is none
+     */
+    public V get(K key) {
+        dependOnKey(key);
+        return mMap.get(key);
+    }
+
+    /**
+     * @param key key to look up
+     * @return true if the map has the key, depending on that key only
+     */
+    public boolean containsKey(K key) {
+        dependOnKey(key);
+        return mMap.containsKey(key);
+    }
+
+    /**
+     * @return number of entries, depending on keys being added or removed
+     */
+    public int size() {
+        mSizeDependency.depend();
+        return mMap.size();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @return read only view of the keys, depending on the whole map
+     */
+    public Set<K> keySet() {
+        mContentsDependency.depend();
+        return Collections.unmodifiableSet(mMap.keySet());
+    }
+
+    /**
+     * @return read only view of the values, depending on the whole map
+     */
+    public Collection<V> values() {
+        mContentsDependency.depend();
+        return Collections.unmodifiableCollection(mMap.values());
+    }
+
+    /**
+     * @return read only view of the map, depending on the whole map
+     */
+    public Map<K, V> asMap() {
+        mContentsDependency.depend();
+        return Collections.unmodifiableMap(mMap);
+    }
+
+    /**
+     * Puts a value, invalidating readers of the key. Does nothing if the key already has an
+     * equivalent value.
+     *
+     * @param key   key to set
+     * @param value value to set
+     * @return the previous value
+     */
+    public V put(K key, V value) {
+        checkWritable();
+        return putEntry(key, value);
+    }
+
+    V putEntry(K key, V value) {
+        final boolean existed = mMap.containsKey(key);
+        final V previous = mMap.get(key);
+        if (existed && mEquivalence.equivalent(previous, value)) {
+            final ReactorDependency dependency = mKeyDependencies.get(key);
+            if (dependency != null) {
+                dependency.unchanged();
+            }
+            mContentsDependency.unchanged();
+            return previous;
+        }
+
+        mMap.put(key, value);
+        keyChanged(key);
+        if (!existed) {
+            mSizeDependency.changed();
+        }
+        mContentsDependency.changed();
+        return previous;
+    }
+
+    public void putAll(Map<? extends K, ? extends V> map) {
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Removes a key, invalidating readers of the key and of the size
+     *
+     * @param key key to remove
+     * @return the removed value
+     */
+    public V remove(K key) {
+        checkWritable();
+        return removeKey(key);
+    }
+
+    V removeKey(K key) {
+        if (!mMap.containsKey(key)) {
+            return null;
+        }
+
+        final V previous = mMap.remove(key);
+        keyChanged(key);
+        mSizeDependency.changed();
+        mContentsDependency.changed();
+        return previous;
+    }
+
+    public void clear() {
+        checkWritable();
+        if (mMap.isEmpty()) {
+            return;
+        }
+
+        for (K key : mMap.keySet()) {
+            final ReactorDependency dependency = mKeyDependencies.get(key);
+            if (dependency != null) {
+                dependency.changed();
+            }
+        }
+        mMap.clear();
+        // readers of missing keys keep their dependencies, they care when the key shows up
+        final Iterator<ReactorDependency> iterator = mKeyDependencies.values().iterator();
+        while (iterator.hasNext()) {
+            if (!iterator.next().hasDependants()) {
+                iterator.remove();
+            }
+        }
+        mSizeDependency.changed();
+        mContentsDependency.changed();
+    }
+
+    /**
+     * Stops a group by map, and its groups, from following the source list. They keep their last contents.
+     */
+    public void detach() {
+        if (mGroupBy != null) {
+            mGroupBy.detach();
+        }
+    }
+
+    void setGroupBy(ReactorListAggregator.GroupByObserver<?, K> groupBy) {
+        mGroupBy = groupBy;
+        mReadOnly = true;
+    }
+
+    private void checkWritable() {
+        if (mReadOnly) {
+            throw new UnsupportedOperationException("Derived ReactorMap can't be changed directly");
+        }
+    }
+
+    /**
+     * Gets the value without creating a dependency
+     */
+    public V getRaw(K key) {
+        return mMap.get(key);
+    }
+
+    private void dependOnKey(K key) {
+        if (!Reactor.getInstance().isActive()) {
+            return;
+        }
+
+        ReactorDependency dependency = mKeyDependencies.get(key);
+        if (dependency == null) {
+            pruneKeyDependencies();
+            dependency = new ReactorDependency();
+            mKeyDependencies.put(key, dependency);
+        }
+        dependency.depend();
+    }
+
+    private void keyChanged(K key) {
+        final ReactorDependency dependency = mKeyDependencies.get(key);
+        if (dependency != null) {
+            dependency.changed();
+            if (!dependency.hasDependants()) {
+                mKeyDependencies.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Drops key dependencies nobody depends on anymore, once they clearly outnumber the entries
+     */
+    private void pruneKeyDependencies() {
+        if (mKeyDependencies.size() <= 2 * mMap.size() + 16) {
+            return;
+        }
+
+        final Iterator<ReactorDependency> iterator = mKeyDependencies.values().iterator();
+        while (iterator.hasNext()) {
+            if (!iterator.next().hasDependants()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * @return number of keys holding a dependency
+     */
+    int getKeyDependencyCount() {
+        return mKeyDependencies.size();
+    }
+
+    @Override
+    public String toString() {
+        return mMap.toString();
+    }
+}
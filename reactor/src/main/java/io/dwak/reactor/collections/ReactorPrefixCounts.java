@@ -0,0 +1,103 @@
+package io.dwak.reactor.collections;
+
+/**
+ * A list of flags with a Fenwick tree over them, so counting the set flags before a position and
+ * changing a flag cost O(log n). Inserting or removing a flag rebuilds the tree from that position
+ * on, which costs as much as the element shift the backing list does for the same change.
+ */
+final class ReactorPrefixCounts {
+    private boolean[] mFlags = new boolean[16];
+
+    /**
+     * One based Fenwick tree, mTree[i] counts the set flags in (i - lowBit(i), i]
+     */
+    private int[] mTree = new int[17];
+
+    private int mSize;
+
+    int size() {
+        return mSize;
+    }
+
+    boolean get(int index) {
+        return mFlags[index];
+    }
+
+    /**
+     * @return number of set flags before the index
+     */
+    int countBefore(int index) {
+        int count = 0;
+        for (int i = index; i > 0; i -= i & -i) {
+            count += mTree[i];
+        }
+        return count;
+    }
+
+    /**
+     * @return the previous flag
+     */
+    boolean set(int index, boolean flag) {
+        final boolean previous = mFlags[index];
+        if (previous != flag) {
+            mFlags[index] = flag;
+            final int delta = flag ? 1 : -1;
+            for (int i = index + 1; i <= mSize; i += i & -i) {
+                mTree[i] += delta;
+            }
+        }
+        return previous;
+    }
+
+    void insert(int index, boolean flag) {
+        if (mSize == mFlags.length) {
+            final boolean[] grown = new boolean[mSize * 2];
+            System.arraycopy(mFlags, 0, grown, 0, mSize);
+            mFlags = grown;
+            mTree = new int[mSize * 2 + 1];
+            rebuildFrom(0, mSize);
+        }
+        System.arraycopy(mFlags, index, mFlags, index + 1, mSize - index);
+        mFlags[index] = flag;
+        mSize++;
+        rebuildFrom(index, mSize);
+    }
+
+    /**
+     * @return the removed flag
+     */
+    boolean remove(int index) {
+        final boolean removed = mFlags[index];
+        System.arraycopy(mFlags, index + 1, mFlags, index, mSize - index - 1);
+        mSize--;
+        rebuildFrom(index, mSize);
+        return removed;
+    }
+
+    void clear() {
+        mSize = 0;
+    }
+
+    /**
+     * Recomputes the tree nodes at and after the index, whose flags moved. The nodes before it only
+     * cover unchanged flags, and the ones still feeding later nodes are exactly the ones a
+     * {@link #countBefore(int)} of the index visits.
+     */
+    private void rebuildFrom(int index, int size) {
+        for (int i = index + 1; i <= size; i++) {
+            mTree[i] = mFlags[i - 1] ? 1 : 0;
+        }
+        for (int i = index; i > 0; i -= i & -i) {
+            final int parent = i + (i & -i);
+            if (parent <= size) {
+                mTree[parent] += mTree[i];
+            }
+        }
+        for (int i = index + 1; i <= size; i++) {
+            final int parent = i + (i & -i);
+            if (parent <= size) {
+                mTree[parent] += mTree[i];
+            }
+        }
+    }
+}
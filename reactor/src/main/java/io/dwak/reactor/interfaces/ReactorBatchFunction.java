@@ -0,0 +1,8 @@
+package io.dwak.reactor.interfaces;
+
+/**
+ * Function whose writes are applied as one batch, see {@link io.dwak.reactor.Reactor#batch(ReactorBatchFunction)}
+ */
+public interface ReactorBatchFunction {
+    void run();
+}
@@ -0,0 +1,8 @@
+package io.dwak.reactor.interfaces;
+
+/**
+ * Function that derives a value from reactive data sources
+ */
+public interface ReactorComputedFunction<T> {
+    T compute();
+}
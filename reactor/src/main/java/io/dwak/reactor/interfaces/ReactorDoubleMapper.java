@@ -0,0 +1,8 @@
+package io.dwak.reactor.interfaces;
+
+/**
+ * Maps an element to a primitive double
+ */
+public interface ReactorDoubleMapper<E> {
+    double map(E element);
+}
@@ -0,0 +1,8 @@
+package io.dwak.reactor.interfaces;
+
+/**
+ * Decides whether a new value is the same as the previous one, in which case dependents aren't invalidated
+ */
+public interface ReactorEquivalence<T> {
+    boolean equivalent(T previous, T next);
+}
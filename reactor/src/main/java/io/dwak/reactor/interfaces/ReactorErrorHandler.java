@@ -0,0 +1,15 @@
+package io.dwak.reactor.interfaces;
+
+import io.dwak.reactor.ReactorComputation;
+
+/**
+ * Receives exceptions thrown while a flush reruns computations or runs afterFlush callbacks.
+ * The flush carries on with the rest of its work after the handler returns.
+ */
+public interface ReactorErrorHandler {
+    /**
+     * @param computation computation that threw, null for an afterFlush callback
+     * @param error       the exception
+     */
+    void onError(ReactorComputation computation, Throwable error);
+}
@@ -0,0 +1,12 @@
+package io.dwak.reactor.interfaces;
+
+/**
+ * Receives element level changes of a {@link io.dwak.reactor.collections.ReactorList} as they happen
+ */
+public interface ReactorListObserver<E> {
+    void onInserted(int index, E element);
+
+    void onRemoved(int index, E element);
+
+    void onReplaced(int index, E previous, E element);
+}
@@ -0,0 +1,10 @@
+package io.dwak.reactor.interfaces;
+
+/**
+ * Destination for messages logged by Reactor
+ */
+public interface ReactorLogger {
+    void log(String tag, String message);
+
+    void log(String tag, String message, Throwable throwable);
+}
@@ -0,0 +1,8 @@
+package io.dwak.reactor.interfaces;
+
+/**
+ * Maps an element to a new value
+ */
+public interface ReactorMapper<E, R> {
+    R map(E element);
+}
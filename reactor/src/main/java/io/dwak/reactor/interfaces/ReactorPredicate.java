@@ -0,0 +1,8 @@
+package io.dwak.reactor.interfaces;
+
+/**
+ * Tests an element
+ */
+public interface ReactorPredicate<E> {
+    boolean test(E element);
+}
@@ -0,0 +1,9 @@
+package io.dwak.reactor.interfaces;
+
+/**
+ * Side effect free transformation run by a pure computation. It must not read reactive data
+ * sources or touch shared state, since it may run on another thread.
+ */
+public interface ReactorPureFunction<I, O> {
+    O apply(I input);
+}
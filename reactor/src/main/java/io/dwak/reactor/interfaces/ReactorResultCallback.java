@@ -0,0 +1,8 @@
+package io.dwak.reactor.interfaces;
+
+/**
+ * Callback receiving the result of a pure computation on the reactor's owner thread
+ */
+public interface ReactorResultCallback<O> {
+    void onResult(O result);
+}
@@ -0,0 +1,10 @@
+package io.dwak.reactor.interfaces;
+
+import io.dwak.reactor.ReactorCycleReport;
+
+/**
+ * Told when a computation hits a rerun limit, after the runaway policy was applied
+ */
+public interface ReactorRunawayListener {
+    void onRunaway(ReactorCycleReport report);
+}
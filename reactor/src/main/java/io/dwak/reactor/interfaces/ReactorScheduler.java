@@ -0,0 +1,34 @@
+package io.dwak.reactor.interfaces;
+
+/**
+ * Schedules the work {@link io.dwak.reactor.Reactor} defers, such as flushes.
+ * Implementations must accept calls from any thread.
+ */
+public interface ReactorScheduler {
+    /**
+     * Runs the runnable as soon as possible, ahead of other delayed work
+     *
+     * @param runnable runnable to run
+     */
+    void schedule(Runnable runnable);
+
+    /**
+     * Runs the runnable once the delay has elapsed on this scheduler's clock
+     *
+     * @param runnable    runnable to run
+     * @param delayMillis delay in milliseconds
+     */
+    void scheduleDelayed(Runnable runnable, long delayMillis);
+
+    /**
+     * Removes a runnable that has been scheduled but has not run yet
+     *
+     * @param runnable runnable to remove
+     */
+    void cancel(Runnable runnable);
+
+    /**
+     * @return the current time of this scheduler's clock, in nanoseconds
+     */
+    long nanoTime();
+}
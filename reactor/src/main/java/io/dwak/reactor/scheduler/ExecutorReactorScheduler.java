@@ -0,0 +1,144 @@
+package io.dwak.reactor.scheduler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import io.dwak.reactor.interfaces.ReactorScheduler;
+
+/**
+ * {@link ReactorScheduler} that hands work to an {@link Executor}.
+ * Delayed work is timed on the executor itself if it is a {@link ScheduledExecutorService},
+ * otherwise on a shared daemon timer thread that hands the work off to the executor when due.
+ * Use a single threaded executor, since a Reactor must only be flushed from one thread at a time.
+ */
+public class ExecutorReactorScheduler implements ReactorScheduler {
+    private static ScheduledExecutorService sTimer;
+
+    private final Executor mExecutor;
+
+    /**
+     * Runnables that haven't run yet, so they can be cancelled. Immediate ones are skipped when they
+     * come up, as a plain Executor can't take work back.
+     */
+    private final HashMap<Runnable, ArrayList<Submission>> mSubmitted;
+
+    public ExecutorReactorScheduler(Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("executor == null");
+        }
+        mExecutor = executor;
+        mSubmitted = new HashMap<Runnable, ArrayList<Submission>>();
+    }
+
+    @Override
+    public void schedule(Runnable runnable) {
+        mExecutor.execute(submit(runnable));
+    }
+
+    @Override
+    public void scheduleDelayed(Runnable runnable, long delayMillis) {
+        final Submission submission = submit(runnable);
+        final ScheduledFuture<?> future;
+        if (mExecutor instanceof ScheduledExecutorService) {
+            future = ((ScheduledExecutorService) mExecutor).schedule(submission, delayMillis, TimeUnit.MILLISECONDS);
+        }
+        else {
+            future = getTimer().schedule(new Runnable() {
+                @Override
+                public void run() {
+                    mExecutor.execute(submission);
+                }
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        }
+        submission.mFuture = future;
+    }
+
+    @Override
+    public void cancel(Runnable runnable) {
+        final ArrayList<Submission> submissions;
+        synchronized (mSubmitted) {
+            submissions = mSubmitted.remove(runnable);
+        }
+        if (submissions == null) {
+            return;
+        }
+        for (int i = 0; i < submissions.size(); i++) {
+            final Submission submission = submissions.get(i);
+            submission.mCancelled = true;
+            final ScheduledFuture<?> future = submission.mFuture;
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    private Submission submit(Runnable runnable) {
+        final Submission submission = new Submission(runnable);
+        synchronized (mSubmitted) {
+            ArrayList<Submission> submissions = mSubmitted.get(runnable);
+            if (submissions == null) {
+                submissions = new ArrayList<Submission>(1);
+                mSubmitted.put(runnable, submissions);
+            }
+            submissions.add(submission);
+        }
+        return submission;
+    }
+
+    /**
+     * One scheduling of a runnable, which forgets itself when it runs
+     */
+    private final class Submission implements Runnable {
+        final Runnable mRunnable;
+        volatile boolean mCancelled;
+        volatile ScheduledFuture<?> mFuture;
+
+        Submission(Runnable runnable) {
+            mRunnable = runnable;
+        }
+
+        @Override
+        public void run() {
+            synchronized (mSubmitted) {
+                if (mCancelled) {
+                    return;
+                }
+                final ArrayList<Submission> submissions = mSubmitted.get(mRunnable);
+                if (submissions != null) {
+                    submissions.remove(this);
+                    if (submissions.isEmpty()) {
+                        mSubmitted.remove(mRunnable);
+                    }
+                }
+            }
+            mRunnable.run();
+        }
+    }
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    private static synchronized ScheduledExecutorService getTimer() {
+        if (sTimer == null) {
+            final ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "ReactorScheduler-timer");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            timer.setRemoveOnCancelPolicy(true);
+            sTimer = timer;
+        }
+        return sTimer;
+    }
+}
@@ -0,0 +1,123 @@
+package io.dwak.reactor.scheduler;
+
+import java.util.Iterator;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import io.dwak.reactor.interfaces.ReactorScheduler;
+
+/**
+ * {@link ReactorScheduler} with a virtual clock that only runs work when told to.
+ * Nothing runs until {@link #runPending()} or {@link #advanceBy(long)} is called,
+ * which makes flushes and timed work deterministic in tests and benchmarks.
+ */
+public class ManualReactorScheduler implements ReactorScheduler {
+    private final PriorityQueue<Task> mTasks;
+
+    /**
+     * Current virtual time in nanoseconds
+     */
+    private long mNow;
+
+    /**
+     * Tie breaker keeping tasks due at the same time in scheduling order
+     */
+    private long mNextSequence;
+
+    public ManualReactorScheduler() {
+        mTasks = new PriorityQueue<Task>();
+    }
+
+    @Override
+    public synchronized void schedule(Runnable runnable) {
+        // Immediate work goes ahead of everything else that is due now
+        mTasks.add(new Task(runnable, Long.MIN_VALUE, mNextSequence++));
+    }
+
+    @Override
+    public synchronized void scheduleDelayed(Runnable runnable, long delayMillis) {
+        mTasks.add(new Task(runnable, mNow + TimeUnit.MILLISECONDS.toNanos(delayMillis), mNextSequence++));
+    }
+
+    @Override
+    public synchronized void cancel(Runnable runnable) {
+        final Iterator<Task> iterator = mTasks.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().mRunnable == runnable) {
+                iterator.remove();
+            }
+        }
+    }
+
+    @Override
+    public synchronized long nanoTime() {
+        return mNow;
+    }
+
+    /**
+     * Runs every task that is due at the current virtual time, including tasks those tasks schedule
+     *
+     * @return number of tasks run
+     */
+    public int runPending() {
+        return runUntil(nanoTime());
+    }
+
+    /**
+     * Advances the virtual clock, running due tasks in time order as the clock passes them
+     *
+     * @param millis milliseconds to advance by
+     * @return number of tasks run
+     */
+    public int advanceBy(long millis) {
+        return runUntil(nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    /**
+     * @return true if there is scheduled work, due or not
+     */
+    public synchronized boolean hasPending() {
+        return !mTasks.isEmpty();
+    }
+
+    private int runUntil(long time) {
+        int count = 0;
+        while (true) {
+            final Task task;
+            synchronized (this) {
+                final Task next = mTasks.peek();
+                if (next == null || next.mTime > time) {
+                    mNow = time;
+                    return count;
+                }
+                mTasks.poll();
+                if (next.mTime > mNow) {
+                    mNow = next.mTime;
+                }
+                task = next;
+            }
+            task.mRunnable.run();
+            count++;
+        }
+    }
+
+    private static final class Task implements Comparable<Task> {
+        final Runnable mRunnable;
+        final long mTime;
+        final long mSequence;
+
+        Task(Runnable runnable, long time, long sequence) {
+            mRunnable = runnable;
+            mTime = time;
+            mSequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Task other) {
+            if (mTime != other.mTime) {
+                return mTime < other.mTime ? -1 : 1;
+            }
+            return mSequence < other.mSequence ? -1 : (mSequence == other.mSequence ? 0 : 1);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package io.dwak.reactor;
+
+import org.junit.Test;
+
+import io.dwak.reactor.interfaces.ReactorComputationFunction;
+import io.dwak.reactor.interfaces.ReactorComputedFunction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ReactorComputedTest extends ReactorTestCase {
+    private int mComputes;
+
+    private ReactorComputedFunction<Integer> doubled(final ReactorIntVar source) {
+        return new ReactorComputedFunction<Integer>() {
+            @Override
+            public Integer compute() {
+                mComputes++;
+                return source.getValue() * 2;
+            }
+        };
+    }
+
+    @Test
+    public void readersOnlyRerunWhenTheResultChanges() {
+        final ReactorIntVar source = new ReactorIntVar(1);
+        final ReactorComputed<Boolean> isEven = new ReactorComputed<Boolean>(new ReactorComputedFunction<Boolean>() {
+            @Override
+            public Boolean compute() {
+                return source.getValue() % 2 == 0;
+            }
+        });
+        final int[] runs = new int[1];
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                isEven.getValue();
+                runs[0]++;
+            }
+        });
+
+        source.setValue(3);
+        runPending();
+        assertEquals(1, runs[0]);
+
+        source.setValue(4);
+        runPending();
+        assertEquals(2, runs[0]);
+    }
+
+    @Test
+    public void readIsNeverStale() {
+        final ReactorIntVar source = new ReactorIntVar(1);
+        final ReactorComputed<Integer> computed = new ReactorComputed<Integer>(doubled(source));
+
+        source.setValue(5);
+        // the flush hasn't run, the read brings the value up to date
+        assertEquals(10, (int) computed.getValue());
+        runPending();
+        assertEquals(2, mComputes);
+    }
+
+    @Test
+    public void stoppedComputedKeepsItsLastValue() {
+        final ReactorIntVar source = new ReactorIntVar(1);
+        final ReactorComputed<Integer> computed = new ReactorComputed<Integer>(doubled(source));
+        computed.stop();
+
+        source.setValue(5);
+        runPending();
+        assertTrue(computed.isStopped());
+        assertEquals(2, (int) computed.getValue());
+    }
+
+    @Test
+    public void lazyComputesOnlyWhenRead() {
+        final ReactorIntVar source = new ReactorIntVar(1);
+        final ReactorComputed<Integer> lazy = ReactorComputed.lazy(doubled(source));
+        assertEquals(0, mComputes);
+        assertFalse(lazy.isConnected());
+
+        // a read outside any computation computes without subscribing to the source
+        assertEquals(2, (int) lazy.getValue());
+        assertFalse(lazy.isConnected());
+        source.setValue(2);
+        runPending();
+        assertEquals(1, mComputes);
+    }
+
+    @Test
+    public void lazyDisconnectsAfterTheLastReaderAndReconnects() {
+        final ReactorIntVar source = new ReactorIntVar(1);
+        final ReactorComputed<Integer> lazy = ReactorComputed.lazy(doubled(source));
+        final ReactorComputation reader = mReactor.autoRun(readerOf(lazy));
+        assertTrue(lazy.isConnected());
+
+        // a reader rerunning in the flush keeps it connected
+        source.setValue(2);
+        runPending();
+        assertTrue(lazy.isConnected());
+        assertEquals(2, mComputes);
+
+        reader.stop();
+        runPending();
+        assertFalse(lazy.isConnected());
+        source.setValue(3);
+        runPending();
+        assertEquals(2, mComputes);
+
+        // reconnecting picks up the change made while disconnected
+        final int[] seen = new int[1];
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                seen[0] = lazy.getValue();
+            }
+        });
+        assertTrue(lazy.isConnected());
+        assertEquals(6, seen[0]);
+        source.setValue(4);
+        runPending();
+        assertEquals(8, seen[0]);
+    }
+
+    @Test
+    public void stoppedLazyDoesNotReconnect() {
+        final ReactorIntVar source = new ReactorIntVar(1);
+        final ReactorComputed<Integer> lazy = ReactorComputed.lazy(doubled(source));
+        mReactor.autoRun(readerOf(lazy));
+        lazy.stop();
+
+        mReactor.autoRun(readerOf(lazy));
+        assertFalse(lazy.isConnected());
+        assertTrue(lazy.isStopped());
+    }
+
+    private static ReactorComputationFunction readerOf(final ReactorComputed<Integer> computed) {
+        return new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                computed.getValue();
+            }
+        };
+    }
+}
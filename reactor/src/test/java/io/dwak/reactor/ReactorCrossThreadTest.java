@@ -0,0 +1,78 @@
+package io.dwak.reactor;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.dwak.reactor.interfaces.ReactorComputationFunction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ReactorCrossThreadTest extends ReactorTestCase {
+    @Test
+    public void writesFromAnotherThreadAreCoalesced() throws InterruptedException {
+        final ReactorIntVar progress = new ReactorIntVar();
+        final ReactorVar<String> status = new ReactorVar<String>("idle");
+        final List<String> seen = new ArrayList<String>();
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                seen.add(status.getValue() + " " + progress.getValue());
+            }
+        });
+
+        final Thread worker = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 1; i <= 1000; i++) {
+                    progress.setValue(i);
+                }
+                status.setValue("done");
+            }
+        });
+        worker.start();
+        worker.join();
+
+        // nothing is applied until the owner thread flushes
+        assertEquals(0, progress.getRawValue());
+        assertTrue(mScheduler.hasPending());
+
+        runPending();
+        assertEquals(2, seen.size());
+        assertEquals("done 1000", seen.get(1));
+        assertFalse(mScheduler.hasPending());
+    }
+
+    @Test
+    public void ownerThreadWritesApplyRightAway() {
+        final ReactorIntVar progress = new ReactorIntVar();
+        progress.setValue(5);
+        assertEquals(5, progress.getRawValue());
+    }
+
+    @Test
+    public void toggleIsOwnerThreadOnly() throws InterruptedException {
+        final ReactorBooleanVar flag = new ReactorBooleanVar(false);
+        final Throwable[] failure = new Throwable[1];
+        final Thread worker = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    flag.toggle();
+                } catch (IllegalStateException e) {
+                    failure[0] = e;
+                }
+            }
+        });
+        worker.start();
+        worker.join();
+        assertTrue(failure[0] instanceof IllegalStateException);
+        assertFalse(mScheduler.hasPending());
+
+        flag.toggle();
+        assertTrue(flag.getRawValue());
+    }
+}
@@ -0,0 +1,72 @@
+package io.dwak.reactor;
+
+import org.junit.Test;
+
+import io.dwak.reactor.interfaces.ReactorComputationFunction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ReactorDependencyTest extends ReactorTestCase {
+    @Test
+    public void repeatedReadsInOneRunAddOneEdge() {
+        final ReactorDependency dependency = new ReactorDependency();
+        final boolean[] firstReadIsNew = new boolean[1];
+        final boolean[] secondReadIsNew = new boolean[1];
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                firstReadIsNew[0] = dependency.depend();
+                secondReadIsNew[0] = dependency.depend();
+            }
+        });
+
+        assertTrue(firstReadIsNew[0]);
+        assertFalse(secondReadIsNew[0]);
+        assertEquals(1, dependency.getDependentCount());
+    }
+
+    @Test
+    public void rerunDependsAgain() {
+        final ReactorDependency dependency = new ReactorDependency();
+        final int[] runs = new int[1];
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                dependency.depend();
+                runs[0]++;
+            }
+        });
+
+        for (int i = 0; i < 3; i++) {
+            dependency.changed();
+            assertFalse(dependency.hasDependants());
+            runPending();
+            assertEquals(1, dependency.getDependentCount());
+        }
+        assertEquals(4, runs[0]);
+    }
+
+    @Test
+    public void manyDependentsAreAllInvalidated() {
+        final ReactorDependency dependency = new ReactorDependency();
+        final int[] runs = new int[1];
+        for (int i = 0; i < 5000; i++) {
+            mReactor.autoRun(new ReactorComputationFunction() {
+                @Override
+                public void react(ReactorComputation reactorComputation) {
+                    dependency.depend();
+                    runs[0]++;
+                }
+            });
+        }
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(5000, dependency.changed());
+            runPending();
+        }
+        assertEquals(4 * 5000, runs[0]);
+        assertEquals(5000, dependency.getDependentCount());
+    }
+}
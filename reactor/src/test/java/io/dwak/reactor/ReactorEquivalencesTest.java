@@ -0,0 +1,142 @@
+package io.dwak.reactor;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import io.dwak.reactor.interfaces.ReactorComputationFunction;
+import io.dwak.reactor.interfaces.ReactorEquivalence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ReactorEquivalencesTest extends ReactorTestCase {
+    private enum Food {PIZZA, MANGOES}
+
+    @Test
+    public void immutableValuesCompareByValue() {
+        final ReactorEquivalence<Object> equivalence = ReactorEquivalences.immutableValues();
+        assertTrue(equivalence.equivalent(new String("pizza"), "pizza"));
+        assertTrue(equivalence.equivalent(1000, 1000));
+        assertTrue(equivalence.equivalent(Food.PIZZA, Food.PIZZA));
+        assertTrue(equivalence.equivalent(null, null));
+        assertFalse(equivalence.equivalent(null, "pizza"));
+        assertFalse(equivalence.equivalent("pizza", null));
+        assertFalse(equivalence.equivalent(Food.PIZZA, Food.MANGOES));
+    }
+
+    @Test
+    public void immutableValuesTreatOtherObjectsAsChanged() {
+        final ReactorEquivalence<Object> equivalence = ReactorEquivalences.immutableValues();
+        assertFalse(equivalence.equivalent(Arrays.asList(1, 2), Arrays.asList(1, 2)));
+        final List<Integer> list = new ArrayList<Integer>();
+        assertFalse(equivalence.equivalent(list, list));
+    }
+
+    @Test
+    public void mutableObjectSetAgainNotifies() {
+        final List<String> foods = new ArrayList<String>();
+        final ReactorVar<List<String>> var = new ReactorVar<List<String>>(foods);
+        final List<Integer> sizes = new ArrayList<Integer>();
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                sizes.add(var.getValue().size());
+            }
+        });
+
+        foods.add("PIZZA");
+        var.setValue(foods);
+        runPending();
+
+        assertEquals(Arrays.asList(0, 1), sizes);
+        assertEquals(0, var.getSuppressedWriteCount());
+    }
+
+    @Test
+    public void comparingUsesTheComparator() {
+        final ReactorEquivalence<String> equivalence = ReactorEquivalences.comparing(String.CASE_INSENSITIVE_ORDER);
+        assertTrue(equivalence.equivalent("Pizza", "PIZZA"));
+        assertFalse(equivalence.equivalent("Pizza", null));
+
+        final ReactorEquivalence<Integer> byParity = ReactorEquivalences.comparing(new Comparator<Integer>() {
+            @Override
+            public int compare(Integer lhs, Integer rhs) {
+                return (lhs % 2) - (rhs % 2);
+            }
+        });
+        assertTrue(byParity.equivalent(2, 4));
+        assertFalse(byParity.equivalent(2, 3));
+    }
+
+    @Test
+    public void equivalentWritesAreSuppressed() {
+        final ReactorVar<String> food = new ReactorVar<String>("PIZZA");
+        final List<String> seen = new ArrayList<String>();
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                seen.add(food.getValue());
+            }
+        });
+
+        food.setValue(new String("PIZZA"));
+        runPending();
+        assertEquals(1, seen.size());
+        assertEquals(1, food.getSuppressedWriteCount());
+
+        food.setValue("MANGOES");
+        runPending();
+        assertEquals(2, seen.size());
+    }
+
+    @Test
+    public void equalityEquivalenceSuppressesEqualObjects() {
+        final ReactorVar<List<Integer>> list = new ReactorVar<List<Integer>>(Arrays.asList(1, 2),
+                ReactorEquivalences.<List<Integer>>equality());
+        final int[] runs = new int[1];
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                list.getValue();
+                runs[0]++;
+            }
+        });
+
+        list.setValue(Arrays.asList(1, 2));
+        runPending();
+        assertEquals(1, runs[0]);
+
+        list.setValue(Arrays.asList(1, 3));
+        runPending();
+        assertEquals(2, runs[0]);
+    }
+
+    @Test
+    public void primitiveVarsSuppressTheSameValue() {
+        final ReactorIntVar count = new ReactorIntVar(1);
+        final ReactorBooleanVar flag = new ReactorBooleanVar(true);
+        final int[] runs = new int[1];
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                count.getValue();
+                flag.getValue();
+                runs[0]++;
+            }
+        });
+
+        count.setValue(1);
+        flag.setValue(true);
+        runPending();
+        assertEquals(1, runs[0]);
+
+        count.setValue(2);
+        runPending();
+        assertEquals(2, runs[0]);
+    }
+}
@@ -0,0 +1,143 @@
+package io.dwak.reactor;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.dwak.reactor.interfaces.ReactorComputationFunction;
+import io.dwak.reactor.interfaces.ReactorErrorHandler;
+import io.dwak.reactor.interfaces.ReactorFlushCallback;
+import io.dwak.reactor.interfaces.ReactorLogger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ReactorErrorHandlerTest extends ReactorTestCase {
+    private final List<ReactorComputation> mFailedComputations = new ArrayList<ReactorComputation>();
+    private final List<Throwable> mErrors = new ArrayList<Throwable>();
+
+    @Before
+    public void setUpErrorHandler() {
+        mReactor.setErrorHandler(new ReactorErrorHandler() {
+            @Override
+            public void onError(ReactorComputation computation, Throwable error) {
+                mFailedComputations.add(computation);
+                mErrors.add(error);
+            }
+        });
+    }
+
+    @Test
+    public void failingComputationsDoNotStopTheFlush() {
+        final ReactorIntVar source = new ReactorIntVar();
+        final int[] healthyRuns = new int[1];
+        final List<ReactorComputation> failing = new ArrayList<ReactorComputation>();
+        for (int i = 0; i < 1000; i++) {
+            final boolean fails = i % 2 == 0;
+            final ReactorComputation computation = mReactor.autoRun(new ReactorComputationFunction() {
+                @Override
+                public void react(ReactorComputation reactorComputation) {
+                    if (source.getValue() > 0 && fails) {
+                        throw new IllegalStateException("boom");
+                    }
+                    if (!reactorComputation.isFirstRun()) {
+                        healthyRuns[0]++;
+                    }
+                }
+            });
+            if (fails) {
+                failing.add(computation);
+            }
+        }
+
+        source.setValue(1);
+        runPending();
+
+        assertEquals(500, healthyRuns[0]);
+        assertEquals(failing, mFailedComputations);
+        assertEquals(IllegalStateException.class, mErrors.get(0).getClass());
+    }
+
+    @Test
+    public void failingComputationStillTracksItsDependencies() {
+        final ReactorIntVar source = new ReactorIntVar();
+        final int[] runs = new int[1];
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                runs[0]++;
+                if (source.getValue() == 1) {
+                    throw new IllegalStateException("boom");
+                }
+            }
+        });
+
+        source.setValue(1);
+        runPending();
+        source.setValue(2);
+        runPending();
+
+        assertEquals(3, runs[0]);
+        assertEquals(1, mErrors.size());
+    }
+
+    @Test
+    public void failingCallbackDoesNotStopTheOthers() {
+        final RuntimeException error = new RuntimeException("boom");
+        final int[] calls = new int[1];
+        mReactor.afterFlush(new ReactorFlushCallback() {
+            @Override
+            public void onFlush() {
+                throw error;
+            }
+        });
+        mReactor.afterFlush(new ReactorFlushCallback() {
+            @Override
+            public void onFlush() {
+                calls[0]++;
+            }
+        });
+
+        runPending();
+
+        assertEquals(1, calls[0]);
+        assertNull(mFailedComputations.get(0));
+        assertSame(error, mErrors.get(0));
+    }
+
+    @Test
+    public void withoutAHandlerErrorsGoToTheLogger() {
+        // a plain JVM logs nothing until a logger is installed
+        assertSame(ReactorLoggers.none(), mReactor.getLogger());
+        final List<Throwable> logged = new ArrayList<Throwable>();
+        mReactor.setErrorHandler(null);
+        mReactor.setLogger(new ReactorLogger() {
+            @Override
+            public void log(String tag, String message) {
+            }
+
+            @Override
+            public void log(String tag, String message, Throwable throwable) {
+                logged.add(throwable);
+            }
+        });
+
+        final ReactorIntVar source = new ReactorIntVar();
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                if (source.getValue() == 1) {
+                    throw new IllegalArgumentException("boom");
+                }
+            }
+        });
+        source.setValue(1);
+        runPending();
+
+        assertEquals(1, logged.size());
+        assertEquals("boom", logged.get(0).getMessage());
+    }
+}
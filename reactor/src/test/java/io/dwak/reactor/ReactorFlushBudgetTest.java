@@ -0,0 +1,83 @@
+package io.dwak.reactor;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.dwak.reactor.interfaces.ReactorComputationFunction;
+import io.dwak.reactor.interfaces.ReactorScheduler;
+
+import static org.junit.Assert.assertEquals;
+
+public class ReactorFlushBudgetTest extends ReactorTestCase {
+    /**
+     * Runs work one tick at a time, with a clock that never moves
+     */
+    private static final class TickScheduler implements ReactorScheduler {
+        final List<Runnable> mTasks = new ArrayList<Runnable>();
+
+        @Override
+        public void schedule(Runnable runnable) {
+            mTasks.add(runnable);
+        }
+
+        @Override
+        public void scheduleDelayed(Runnable runnable, long delayMillis) {
+            mTasks.add(runnable);
+        }
+
+        @Override
+        public void cancel(Runnable runnable) {
+            while (mTasks.remove(runnable)) {
+                // removes every scheduling
+            }
+        }
+
+        @Override
+        public long nanoTime() {
+            return 0;
+        }
+
+        void tick() {
+            mTasks.remove(0).run();
+        }
+    }
+
+    private static void spin(long millis) {
+        final long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        while (System.nanoTime() < end) {
+            // busy, like a slow computation
+        }
+    }
+
+    @Test
+    public void budgetIsMeasuredInRealTime() {
+        final ReactorIntVar source = new ReactorIntVar(0);
+        final int[] runs = new int[1];
+        for (int i = 0; i < 3; i++) {
+            mReactor.autoRun(new ReactorComputationFunction() {
+                @Override
+                public void react(ReactorComputation reactorComputation) {
+                    source.getValue();
+                    runs[0]++;
+                    spin(2);
+                }
+            });
+        }
+        final TickScheduler scheduler = new TickScheduler();
+        mReactor.setScheduler(scheduler);
+        mReactor.setFlushBudget(1, TimeUnit.MILLISECONDS);
+        runs[0] = 0;
+
+        source.setValue(1);
+        scheduler.tick();
+        assertEquals(1, runs[0]);
+        scheduler.tick();
+        assertEquals(2, runs[0]);
+        scheduler.tick();
+        assertEquals(3, runs[0]);
+        assertEquals(0, scheduler.mTasks.size());
+    }
+}
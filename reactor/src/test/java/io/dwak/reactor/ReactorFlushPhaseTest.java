@@ -0,0 +1,81 @@
+package io.dwak.reactor;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import io.dwak.reactor.interfaces.ReactorComputationFunction;
+import io.dwak.reactor.interfaces.ReactorFlushCallback;
+
+import static org.junit.Assert.assertEquals;
+
+public class ReactorFlushPhaseTest extends ReactorTestCase {
+    private final List<String> mCalls = new ArrayList<String>();
+
+    private ReactorFlushCallback record(final String name) {
+        return new ReactorFlushCallback() {
+            @Override
+            public void onFlush() {
+                mCalls.add(name);
+            }
+        };
+    }
+
+    @Test
+    public void earlierPhasesRunFirst() {
+        mReactor.afterFlush(ReactorFlushPhase.POST_RENDER, record("post"));
+        mReactor.afterFlush(ReactorFlushPhase.WRITE, record("write 1"));
+        mReactor.afterFlush(ReactorFlushPhase.READ, record("read 1"));
+        mReactor.afterFlush(ReactorFlushPhase.WRITE, record("write 2"));
+        mReactor.afterFlush(ReactorFlushPhase.READ, record("read 2"));
+        mReactor.afterFlush(record("compute"));
+
+        runPending();
+
+        assertEquals(Arrays.asList("compute", "read 1", "read 2", "write 1", "write 2", "post"), mCalls);
+    }
+
+    @Test
+    public void readAddedDuringReadsRunsBeforeWrites() {
+        mReactor.afterFlush(ReactorFlushPhase.WRITE, record("write"));
+        mReactor.afterFlush(ReactorFlushPhase.READ, new ReactorFlushCallback() {
+            @Override
+            public void onFlush() {
+                mCalls.add("read 1");
+                mReactor.afterFlush(ReactorFlushPhase.READ, record("read 2"));
+            }
+        });
+
+        runPending();
+
+        assertEquals(Arrays.asList("read 1", "read 2", "write"), mCalls);
+    }
+
+    @Test
+    public void computationsSettleBeforeCallbacks() {
+        final ReactorIntVar source = new ReactorIntVar();
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                mCalls.add("compute " + source.getValue());
+            }
+        });
+
+        source.setValue(1);
+        mReactor.afterFlush(ReactorFlushPhase.READ, new ReactorFlushCallback() {
+            @Override
+            public void onFlush() {
+                mCalls.add("read");
+                // invalidating from a callback reruns the computation before the next callback
+                source.setValue(2);
+            }
+        });
+        mReactor.afterFlush(ReactorFlushPhase.WRITE, record("write"));
+
+        runPending();
+
+        assertEquals(Arrays.asList("compute 0", "compute 1", "read", "compute 2", "write"), mCalls);
+    }
+}
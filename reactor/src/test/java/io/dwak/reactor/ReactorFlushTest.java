@@ -0,0 +1,275 @@
+package io.dwak.reactor;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import io.dwak.reactor.interfaces.ReactorBatchFunction;
+import io.dwak.reactor.interfaces.ReactorComputationFunction;
+import io.dwak.reactor.interfaces.ReactorComputedFunction;
+import io.dwak.reactor.scheduler.ManualReactorScheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ReactorFlushTest extends ReactorTestCase {
+    @Test
+    public void changesFlushOnTheScheduler() {
+        final ReactorIntVar source = new ReactorIntVar(1);
+        final List<Integer> seen = new ArrayList<Integer>();
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                seen.add(source.getValue());
+            }
+        });
+
+        source.setValue(2);
+        source.setValue(3);
+        assertEquals(1, seen.size());
+        assertTrue(mScheduler.hasPending());
+
+        runPending();
+        assertEquals(2, seen.size());
+        assertEquals(3, (int) seen.get(1));
+    }
+
+    @Test
+    public void diamondReaderRunsOnceWithConsistentValues() {
+        final ReactorIntVar source = new ReactorIntVar(1);
+        final ReactorIntVar left = new ReactorIntVar();
+        final ReactorIntVar right = new ReactorIntVar();
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                left.setValue(source.getValue() * 2);
+            }
+        });
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                right.setValue(source.getValue() * 3);
+            }
+        });
+
+        final List<String> seen = new ArrayList<String>();
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                seen.add(left.getValue() + "/" + right.getValue());
+            }
+        });
+
+        source.setValue(2);
+        runPending();
+        source.setValue(5);
+        runPending();
+
+        final List<String> expected = new ArrayList<String>();
+        expected.add("2/3");
+        expected.add("4/6");
+        expected.add("10/15");
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    public void computationReadEarlyStaysQueuedOnce() {
+        final ReactorIntVar source = new ReactorIntVar(1);
+        final ReactorComputed<Integer> doubled = new ReactorComputed<Integer>(new ReactorComputedFunction<Integer>() {
+            @Override
+            public Integer compute() {
+                return source.getValue() * 2;
+            }
+        });
+
+        source.setValue(2);
+        // the read runs the queued computation early, then the write invalidates it again
+        assertEquals(4, (int) doubled.getValue());
+        source.setValue(3);
+        assertEquals(1, mReactor.getPendingReactorComputations().size());
+
+        runPending();
+        assertEquals(6, (int) doubled.getRawValue());
+        assertTrue(mReactor.getPendingReactorComputations().isEmpty());
+    }
+
+    @Test
+    public void onlyReadersOfALaterQueuedWriterCountAsSavedReruns() {
+        final ReactorIntVar source = new ReactorIntVar(1);
+        final ReactorIntVar trigger = new ReactorIntVar(1);
+        final ReactorIntVar left = new ReactorIntVar();
+        final ReactorIntVar unrelated = new ReactorIntVar(1);
+        final ReactorIntVar constant = new ReactorIntVar();
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                constant.setValue(10);
+            }
+        });
+        // as high as the diamond's reader, and queued before everything else
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                unrelated.getValue();
+                constant.getValue();
+            }
+        });
+        // changed before the writer of left, so a FIFO flush would run it first and then again
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                source.getValue();
+                left.getValue();
+            }
+        });
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                left.setValue(trigger.getValue() * 2);
+            }
+        });
+        runPending();
+
+        final long before = mReactor.getRedundantRecomputesAvoided();
+        unrelated.setValue(2);
+        runPending();
+        assertEquals(before, mReactor.getRedundantRecomputesAvoided());
+
+        unrelated.setValue(3);
+        source.setValue(2);
+        trigger.setValue(2);
+        runPending();
+        assertEquals(before + 1, mReactor.getRedundantRecomputesAvoided());
+
+        // queued after the writer, where a FIFO flush would also have waited for it
+        trigger.setValue(3);
+        source.setValue(3);
+        runPending();
+        assertEquals(before + 1, mReactor.getRedundantRecomputesAvoided());
+    }
+
+    @Test
+    public void batchInvalidatesEachReaderOnce() {
+        final ReactorIntVar first = new ReactorIntVar(1);
+        final ReactorIntVar second = new ReactorIntVar(2);
+        final List<Integer> sums = new ArrayList<Integer>();
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                sums.add(first.getValue() + second.getValue());
+            }
+        });
+
+        mReactor.batch(new ReactorBatchFunction() {
+            @Override
+            public void run() {
+                first.setValue(10);
+                second.setValue(20);
+                // nothing is invalidated until the batch ends
+                assertEquals(1, sums.size());
+            }
+        });
+
+        // the batch flushed when it ended and took the scheduled flush with it
+        assertEquals(2, sums.size());
+        assertEquals(30, (int) sums.get(1));
+        assertFalse(mScheduler.hasPending());
+    }
+
+    @Test
+    public void scheduledFlushMovesToTheNewScheduler() {
+        final ReactorIntVar source = new ReactorIntVar(1);
+        final int[] runs = new int[1];
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                source.getValue();
+                runs[0]++;
+            }
+        });
+        source.setValue(2);
+
+        final ManualReactorScheduler next = new ManualReactorScheduler();
+        mReactor.setScheduler(next);
+        assertFalse(mScheduler.hasPending());
+        next.runPending();
+        assertEquals(2, runs[0]);
+        assertFalse(next.hasPending());
+    }
+
+    @Test
+    public void readerCreatedBeforeItsWriterRunsAfterIt() {
+        final ReactorIntVar source = new ReactorIntVar(1);
+        final ReactorIntVar doubled = new ReactorIntVar(2);
+        final List<String> seen = new ArrayList<String>();
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                seen.add(source.getValue() + "," + doubled.getValue());
+            }
+        });
+        // the first write leaves the value unchanged, its height is still learned
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                doubled.setValue(source.getValue() * 2);
+            }
+        });
+
+        source.setValue(2);
+        runPending();
+        assertEquals(Arrays.asList("1,2", "2,4"), seen);
+    }
+
+    @Test
+    public void stoppedComputationDoesNotRerun() {
+        final ReactorIntVar source = new ReactorIntVar(1);
+        final int[] runs = new int[1];
+        final ReactorComputation computation = mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                source.getValue();
+                runs[0]++;
+            }
+        });
+
+        computation.stop();
+        source.setValue(2);
+        runPending();
+
+        assertEquals(1, runs[0]);
+        assertFalse(source.getDependency().hasDependants());
+    }
+
+    @Test
+    public void nestedComputationIsStoppedWhenParentReruns() {
+        final ReactorIntVar outer = new ReactorIntVar(1);
+        final ReactorIntVar inner = new ReactorIntVar(1);
+        final int[] innerRuns = new int[1];
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                outer.getValue();
+                mReactor.autoRun(new ReactorComputationFunction() {
+                    @Override
+                    public void react(ReactorComputation reactorComputation) {
+                        inner.getValue();
+                        innerRuns[0]++;
+                    }
+                });
+            }
+        });
+
+        outer.setValue(2);
+        runPending();
+        assertEquals(2, innerRuns[0]);
+        assertEquals(1, inner.getDependency().getDependentCount());
+
+        inner.setValue(2);
+        runPending();
+        assertEquals(3, innerRuns[0]);
+    }
+}
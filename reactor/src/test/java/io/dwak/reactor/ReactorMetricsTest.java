@@ -0,0 +1,119 @@
+package io.dwak.reactor;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import io.dwak.reactor.interfaces.ReactorComputationFunction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class ReactorMetricsTest extends ReactorTestCase {
+    private ReactorMetrics mMetrics;
+
+    @Before
+    public void setUpMetrics() {
+        mMetrics = new ReactorMetrics();
+        mReactor.setMetrics(mMetrics);
+    }
+
+    private ReactorComputation readEach(final ReactorIntVar source) {
+        return mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                source.getValue();
+            }
+        });
+    }
+
+    @Test
+    public void recordsRunsAndFanOut() {
+        final ReactorIntVar source = new ReactorIntVar();
+        final ReactorComputation computation = readEach(source);
+        readEach(source);
+        mMetrics.setName(computation, "reader");
+
+        source.setValue(1);
+        runPending();
+
+        final ReactorMetricsSnapshot snapshot = mMetrics.snapshot(mReactor);
+        assertEquals(2, snapshot.getComputations().size());
+        assertEquals(2, snapshot.getComputations().get(0).getCount());
+        assertEquals(1, snapshot.getFlushDurations().getCount());
+        assertEquals(2, snapshot.getFanOuts().getMax());
+        assertEquals(1, snapshot.getDependencies().size());
+    }
+
+    @Test
+    public void stoppedComputationsAreDropped() {
+        final ReactorIntVar source = new ReactorIntVar();
+        for (int i = 0; i < 1000; i++) {
+            readEach(source).stop();
+        }
+        final ReactorComputation live = readEach(source);
+
+        final ReactorMetricsSnapshot snapshot = mMetrics.snapshot(mReactor);
+        assertEquals(1, snapshot.getComputations().size());
+        assertEquals(live.getId(), snapshot.getComputations().get(0).getId());
+    }
+
+    @Test
+    public void resetKeepsNames() {
+        final ReactorIntVar source = new ReactorIntVar();
+        final ReactorComputation computation = readEach(source);
+        mMetrics.setName(computation, "reader");
+        mMetrics.reset();
+
+        final ReactorNodeStats stats = mMetrics.snapshot(mReactor).getComputations().get(0);
+        assertEquals("reader", stats.getName());
+        assertEquals(0, stats.getCount());
+    }
+
+    @Test
+    public void snapshotsDoNotChangeAfterwards() {
+        final ReactorIntVar first = new ReactorIntVar();
+        final ReactorIntVar second = new ReactorIntVar();
+        readEach(first);
+        readEach(second);
+        first.setValue(1);
+        second.setValue(1);
+        runPending();
+
+        final ReactorMetricsSnapshot snapshot = mMetrics.snapshot(mReactor);
+        final List<ReactorNodeStats> dependencies = snapshot.getDependencies();
+        assertEquals(2, dependencies.size());
+        assertNotEquals(dependencies.get(0).getId(), dependencies.get(1).getId());
+
+        first.setValue(2);
+        runPending();
+        mMetrics.reset();
+        assertEquals(1, snapshot.getFlushDurations().getCount());
+        assertEquals(2, snapshot.getFanOuts().getCount());
+        assertEquals(2, snapshot.getComputations().get(0).getCount());
+        assertEquals(1, snapshot.getDependencies().get(0).getCount());
+    }
+
+    @Test
+    public void histogramPercentilesAreBucketBounds() {
+        final ReactorHistogram histogram = new ReactorHistogram();
+        assertEquals(0, histogram.getPercentile(99));
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+        histogram.record(0);
+
+        assertEquals(101, histogram.getCount());
+        assertEquals(63, histogram.getPercentile(50));
+        assertEquals(100, histogram.getPercentile(100));
+        assertEquals(0, histogram.getPercentile(0));
+
+        final ReactorHistogram copy = histogram.copy();
+        histogram.clear();
+        assertEquals(0, histogram.getCount());
+        assertEquals(101, copy.getCount());
+        histogram.record(5);
+        assertEquals(5, histogram.getPercentile(50));
+    }
+}
@@ -0,0 +1,64 @@
+package io.dwak.reactor;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import io.dwak.reactor.interfaces.ReactorComputedFunction;
+import io.dwak.reactor.interfaces.ReactorPureFunction;
+import io.dwak.reactor.interfaces.ReactorResultCallback;
+
+import static org.junit.Assert.assertEquals;
+
+public class ReactorPureTest extends ReactorTestCase {
+    private static final ReactorPureFunction<Integer, Integer> SQUARE = new ReactorPureFunction<Integer, Integer>() {
+        @Override
+        public Integer apply(Integer input) {
+            return input * input;
+        }
+    };
+
+    private void autoRunSquare(final ReactorIntVar source, final List<Integer> results) {
+        mReactor.autoRunPure(new ReactorComputedFunction<Integer>() {
+            @Override
+            public Integer compute() {
+                return source.getValue();
+            }
+        }, SQUARE, new ReactorResultCallback<Integer>() {
+            @Override
+            public void onResult(Integer result) {
+                results.add(result);
+            }
+        });
+    }
+
+    @Test
+    public void rejectedTransformsRunInline() {
+        mReactor.setParallelExecutor(new Executor() {
+            @Override
+            public void execute(Runnable runnable) {
+                throw new RejectedExecutionException();
+            }
+        });
+        final ReactorIntVar source = new ReactorIntVar(2);
+        final List<Integer> first = new ArrayList<Integer>();
+        final List<Integer> second = new ArrayList<Integer>();
+        autoRunSquare(source, first);
+        autoRunSquare(source, second);
+
+        source.setValue(3);
+        runPending();
+
+        assertEquals(9, (int) first.get(first.size() - 1));
+        assertEquals(9, (int) second.get(second.size() - 1));
+
+        // the batch was cleaned up, so the next one runs too
+        source.setValue(4);
+        runPending();
+        assertEquals(16, (int) first.get(first.size() - 1));
+        assertEquals(16, (int) second.get(second.size() - 1));
+    }
+}
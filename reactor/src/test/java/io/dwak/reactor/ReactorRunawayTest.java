@@ -0,0 +1,180 @@
+package io.dwak.reactor;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.dwak.reactor.interfaces.ReactorComputationFunction;
+import io.dwak.reactor.interfaces.ReactorComputedFunction;
+import io.dwak.reactor.interfaces.ReactorRunawayListener;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ReactorRunawayTest extends ReactorTestCase {
+    private final List<ReactorCycleReport> mReports = new ArrayList<ReactorCycleReport>();
+
+    @Before
+    public void setUpListener() {
+        mReactor.setRunawayListener(new ReactorRunawayListener() {
+            @Override
+            public void onRunaway(ReactorCycleReport report) {
+                mReports.add(report);
+            }
+        });
+    }
+
+    @Test
+    public void selfInvalidatingComputationIsStopped() {
+        final ReactorIntVar counter = new ReactorIntVar();
+        final ReactorComputation computation = mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                counter.setValue(counter.getValue() + 1);
+            }
+        });
+
+        runPending();
+
+        assertTrue(computation.isStopped());
+        assertEquals(1, mReports.size());
+        assertSame(computation, mReports.get(0).getComputation());
+        assertEquals(ReactorRunawayPolicy.STOP, mReports.get(0).getPolicy());
+        assertFalse(mReports.get(0).getSteps().isEmpty());
+    }
+
+    @Test
+    public void deferredCycleAdvancesOncePerFlush() {
+        mReactor.setRunawayPolicy(ReactorRunawayPolicy.DEFER);
+        mReactor.setRerunLimits(10, Reactor.DEFAULT_FLUSH_RERUN_LIMIT);
+        final ReactorIntVar x = new ReactorIntVar();
+        final ReactorIntVar y = new ReactorIntVar();
+        final ReactorComputation first = mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                y.setValue(x.getValue() + 1);
+            }
+        });
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                x.setValue(y.getValue() + 1);
+            }
+        });
+
+        // flushing directly, since the manual scheduler would keep running the rescheduled flushes
+        mReactor.flush();
+        assertEquals(1, mReports.size());
+        assertFalse(first.isStopped());
+        assertEquals(2, mReports.get(0).getSteps().size());
+
+        // the deferred work is scheduled, so the thread gets control back in between
+        assertTrue(mScheduler.hasPending());
+        final int before = x.getRawValue();
+        mReactor.flush();
+        assertTrue(x.getRawValue() > before);
+        assertEquals(2, mReports.size());
+    }
+
+    @Test
+    public void readsOutsideAFlushAreNotRunaways() {
+        final ReactorIntVar source = new ReactorIntVar();
+        final ReactorComputed<Integer> doubled = new ReactorComputed<Integer>(new ReactorComputedFunction<Integer>() {
+            @Override
+            public Integer compute() {
+                return source.getValue() * 2;
+            }
+        });
+
+        for (int i = 1; i <= 3 * Reactor.DEFAULT_RERUN_LIMIT; i++) {
+            source.setValue(i);
+            assertEquals(2 * i, (int) doubled.getValue());
+        }
+
+        assertFalse(doubled.isStopped());
+        assertTrue(mReports.isEmpty());
+    }
+
+    @Test
+    public void lazyReconnectsAreNotRunaways() {
+        final ReactorIntVar source = new ReactorIntVar();
+        final ReactorComputed<Integer> lazy = ReactorComputed.lazy(new ReactorComputedFunction<Integer>() {
+            @Override
+            public Integer compute() {
+                return source.getValue() * 2;
+            }
+        });
+
+        for (int i = 1; i <= 3 * Reactor.DEFAULT_RERUN_LIMIT; i++) {
+            final ReactorComputation reader = mReactor.autoRun(new ReactorComputationFunction() {
+                @Override
+                public void react(ReactorComputation reactorComputation) {
+                    lazy.getValue();
+                }
+            });
+            source.setValue(i);
+            runPending();
+            assertEquals(2 * i, (int) lazy.getRawValue());
+            reader.stop();
+            runPending();
+            assertFalse(lazy.isConnected());
+        }
+
+        assertFalse(lazy.isStopped());
+        assertTrue(mReports.isEmpty());
+    }
+
+    @Test
+    public void connectedLazyReadOutsideAFlushIsNotARunaway() {
+        final ReactorIntVar source = new ReactorIntVar();
+        final ReactorComputed<Integer> lazy = ReactorComputed.lazy(new ReactorComputedFunction<Integer>() {
+            @Override
+            public Integer compute() {
+                return source.getValue() * 2;
+            }
+        });
+        final int[] runs = new int[1];
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                lazy.getValue();
+                runs[0]++;
+            }
+        });
+
+        for (int i = 1; i <= 3 * Reactor.DEFAULT_RERUN_LIMIT; i++) {
+            source.setValue(i);
+            assertEquals(2 * i, (int) lazy.getValue());
+        }
+        runPending();
+
+        assertEquals(2, runs[0]);
+        assertTrue(lazy.isConnected());
+        assertTrue(mReports.isEmpty());
+    }
+
+    @Test
+    public void legitimateRerunsBelowTheLimitAreAllowed() {
+        final ReactorIntVar source = new ReactorIntVar();
+        final int[] runs = new int[1];
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                source.getValue();
+                runs[0]++;
+            }
+        });
+
+        for (int i = 1; i <= 3 * Reactor.DEFAULT_RERUN_LIMIT; i++) {
+            source.setValue(i);
+            runPending();
+        }
+
+        assertEquals(3 * Reactor.DEFAULT_RERUN_LIMIT + 1, runs[0]);
+        assertTrue(mReports.isEmpty());
+    }
+}
@@ -0,0 +1,129 @@
+package io.dwak.reactor;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import io.dwak.reactor.interfaces.ReactorComputationFunction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ReactorScopeTest extends ReactorTestCase {
+    @Test
+    public void pausedComputationsDoNotRun() {
+        final ReactorIntVar source = new ReactorIntVar(0);
+        final ReactorScope scope = new ReactorScope();
+        final List<Integer> seen = new ArrayList<Integer>();
+        scope.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                seen.add(source.getValue());
+            }
+        });
+
+        scope.pause();
+        source.setValue(1);
+        runPending();
+        source.setValue(2);
+        runPending();
+        assertEquals(Arrays.asList(0), seen);
+    }
+
+    @Test
+    public void resumeRunsEachParkedComputationOnceWithTheLatestState() {
+        final ReactorIntVar first = new ReactorIntVar(0);
+        final ReactorIntVar second = new ReactorIntVar(0);
+        final ReactorScope scope = new ReactorScope();
+        final List<String> seen = new ArrayList<String>();
+        scope.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                seen.add("first " + first.getValue());
+            }
+        });
+        scope.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                seen.add("second " + second.getValue());
+            }
+        });
+        seen.clear();
+
+        scope.pause();
+        for (int i = 1; i <= 3; i++) {
+            first.setValue(i);
+            second.setValue(i * 10);
+            runPending();
+        }
+        assertTrue(seen.isEmpty());
+
+        scope.resume();
+        runPending();
+        assertEquals(Arrays.asList("first 3", "second 30"), seen);
+
+        // back to normal once resumed
+        first.setValue(4);
+        runPending();
+        assertEquals(Arrays.asList("first 3", "second 30", "first 4"), seen);
+    }
+
+    @Test
+    public void resumeWithoutChangesRunsNothing() {
+        final ReactorIntVar source = new ReactorIntVar(0);
+        final ReactorScope scope = new ReactorScope();
+        final int[] runs = new int[1];
+        scope.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                source.getValue();
+                runs[0]++;
+            }
+        });
+
+        scope.pause();
+        scope.resume();
+        runPending();
+        assertEquals(1, runs[0]);
+        assertFalse(scope.isPaused());
+    }
+
+    @Test
+    public void stopReleasesDependencies() {
+        final ReactorIntVar source = new ReactorIntVar(0);
+        final ReactorScope scope = new ReactorScope();
+        final int[] runs = new int[1];
+        final ReactorComputation computation = scope.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                source.getValue();
+                runs[0]++;
+                // created inside a scoped computation, so it belongs to the scope as well
+                mReactor.autoRun(new ReactorComputationFunction() {
+                    @Override
+                    public void react(ReactorComputation reactorComputation) {
+                        source.getValue();
+                    }
+                });
+            }
+        });
+        assertEquals(2, source.getDependency().getDependentCount());
+
+        scope.pause();
+        source.setValue(1);
+        runPending();
+        scope.stop();
+
+        assertTrue(computation.isStopped());
+        assertEquals(0, scope.getComputationCount());
+        assertFalse(source.getDependency().hasDependants());
+
+        scope.resume();
+        source.setValue(2);
+        runPending();
+        assertEquals(1, runs[0]);
+    }
+}
@@ -0,0 +1,33 @@
+package io.dwak.reactor;
+
+import org.junit.After;
+import org.junit.Before;
+
+import io.dwak.reactor.scheduler.ManualReactorScheduler;
+
+/**
+ * Gives each test its own reactor bound to the test thread, flushed by a {@link ManualReactorScheduler}
+ */
+public abstract class ReactorTestCase {
+    protected ManualReactorScheduler mScheduler;
+    protected Reactor mReactor;
+
+    @Before
+    public void setUpReactor() {
+        mScheduler = new ManualReactorScheduler();
+        mReactor = new Reactor(mScheduler);
+        mReactor.bindToCurrentThread();
+    }
+
+    @After
+    public void tearDownReactor() {
+        Reactor.unbindCurrentThread();
+    }
+
+    /**
+     * Runs the scheduled flush, if any
+     */
+    protected void runPending() {
+        mScheduler.runPending();
+    }
+}
@@ -0,0 +1,106 @@
+package io.dwak.reactor;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.dwak.reactor.interfaces.ReactorComputationFunction;
+import io.dwak.reactor.scheduler.ManualReactorScheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ReactorThreadBindingTest extends ReactorTestCase {
+    @Test
+    public void threadsBoundToDifferentReactorsDoNotShareState() throws InterruptedException {
+        final ReactorIntVar mainSource = new ReactorIntVar(0);
+        final int[] mainRuns = new int[1];
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                mainSource.getValue();
+                mainRuns[0]++;
+            }
+        });
+
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        final AtomicReference<Reactor> workerReactor = new AtomicReference<Reactor>();
+        final Thread worker = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    final ManualReactorScheduler scheduler = new ManualReactorScheduler();
+                    final Reactor reactor = new Reactor(scheduler);
+                    reactor.bindToCurrentThread();
+                    workerReactor.set(reactor);
+
+                    final ReactorIntVar source = new ReactorIntVar(0);
+                    final List<Integer> seen = new ArrayList<Integer>();
+                    reactor.autoRun(new ReactorComputationFunction() {
+                        @Override
+                        public void react(ReactorComputation reactorComputation) {
+                            assertSame(reactor, Reactor.getInstance());
+                            seen.add(source.getValue());
+                        }
+                    });
+                    source.setValue(1);
+                    scheduler.runPending();
+                    assertEquals(2, seen.size());
+                    assertEquals(1, (int) seen.get(1));
+                } catch (Throwable e) {
+                    failure.set(e);
+                } finally {
+                    Reactor.unbindCurrentThread();
+                }
+            }
+        });
+        worker.start();
+        worker.join();
+        assertNull(failure.get());
+
+        // the worker's flush never touched this thread's reactor
+        assertNotSame(mReactor, workerReactor.get());
+        assertSame(mReactor, Reactor.getInstance());
+        assertFalse(mScheduler.hasPending());
+        assertEquals(1, mainRuns[0]);
+
+        mainSource.setValue(1);
+        runPending();
+        assertEquals(2, mainRuns[0]);
+    }
+
+    @Test
+    public void computationRunsWithItsOwnReactorBound() {
+        final ReactorIntVar source = new ReactorIntVar(0);
+        final List<Reactor> seen = new ArrayList<Reactor>();
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                source.getValue();
+                seen.add(Reactor.getInstance());
+            }
+        });
+        source.setValue(1);
+
+        // flushed while the thread is bound to another reactor
+        final Reactor other = new Reactor(new ManualReactorScheduler());
+        other.bindToCurrentThread();
+        mReactor.flush();
+        assertSame(mReactor, seen.get(1));
+        assertSame(other, Reactor.getInstance());
+
+        // and while it isn't bound at all
+        Reactor.unbindCurrentThread();
+        mReactor.bindToCurrentThread();
+        source.setValue(2);
+        Reactor.unbindCurrentThread();
+        mReactor.flush();
+        assertSame(mReactor, seen.get(2));
+        assertNotSame(mReactor, Reactor.getInstance());
+    }
+}
@@ -0,0 +1,114 @@
+package io.dwak.reactor;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import io.dwak.reactor.interfaces.ReactorComputationFunction;
+import io.dwak.reactor.interfaces.ReactorComputedFunction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class ReactorTimedValueTest extends ReactorTestCase {
+    private final ReactorIntVar mSource = new ReactorIntVar(0);
+    private final List<Integer> mSeen = new ArrayList<Integer>();
+
+    private ReactorComputedFunction<Integer> source() {
+        return new ReactorComputedFunction<Integer>() {
+            @Override
+            public Integer compute() {
+                return mSource.getValue();
+            }
+        };
+    }
+
+    private void follow(final ReactorTimedValue<Integer> value) {
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                mSeen.add(value.getValue());
+            }
+        });
+    }
+
+    private void set(int value) {
+        mSource.setValue(value);
+        runPending();
+    }
+
+    @Test
+    public void debouncePublishesAfterAFullQuietPeriod() {
+        follow(ReactorTimedValue.debounce(source(), 100));
+
+        set(1);
+        mScheduler.advanceBy(60);
+        set(2);
+        mScheduler.advanceBy(60);
+        assertEquals(Arrays.asList(0), mSeen);
+
+        mScheduler.advanceBy(40);
+        assertEquals(Arrays.asList(0, 2), mSeen);
+        assertFalse(mScheduler.hasPending());
+    }
+
+    @Test
+    public void throttlePublishesTheLeadingThenTheTrailingValue() {
+        follow(ReactorTimedValue.throttle(source(), 100));
+
+        set(1);
+        assertEquals(Arrays.asList(0, 1), mSeen);
+
+        mScheduler.advanceBy(30);
+        set(2);
+        mScheduler.advanceBy(30);
+        set(3);
+        assertEquals(Arrays.asList(0, 1), mSeen);
+
+        mScheduler.advanceBy(40);
+        assertEquals(Arrays.asList(0, 1, 3), mSeen);
+
+        // the window closes without changes, so the next change leads again
+        mScheduler.advanceBy(100);
+        set(4);
+        assertEquals(Arrays.asList(0, 1, 3, 4), mSeen);
+    }
+
+    @Test
+    public void samplePublishesOnEachTickWithChanges() {
+        follow(ReactorTimedValue.sample(source(), 100));
+
+        set(1);
+        mScheduler.advanceBy(50);
+        set(2);
+        mScheduler.advanceBy(50);
+        assertEquals(Arrays.asList(0, 2), mSeen);
+
+        set(3);
+        mScheduler.advanceBy(50);
+        set(4);
+        mScheduler.advanceBy(50);
+        assertEquals(Arrays.asList(0, 2, 4), mSeen);
+
+        // an idle source leaves no timer behind
+        assertFalse(mScheduler.hasPending());
+    }
+
+    @Test
+    public void stopCancelsThePendingTimer() {
+        final ReactorTimedValue<Integer> debounced = ReactorTimedValue.debounce(source(), 100);
+        follow(debounced);
+
+        set(1);
+        debounced.stop();
+        assertFalse(mScheduler.hasPending());
+
+        mScheduler.advanceBy(200);
+        set(2);
+        mScheduler.advanceBy(200);
+        assertEquals(Arrays.asList(0), mSeen);
+        assertEquals(0, (int) debounced.getRawValue());
+    }
+}
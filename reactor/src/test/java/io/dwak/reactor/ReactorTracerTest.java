@@ -0,0 +1,103 @@
+package io.dwak.reactor;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.dwak.reactor.interfaces.ReactorComputationFunction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ReactorTracerTest extends ReactorTestCase {
+    private static final Pattern EVENT = Pattern.compile(
+            "\\{\"name\":\"([^\"]+)\",\"cat\":\"reactor\",\"ph\":\"(B|E|i\",\"s\":\"t)\",\"ts\":(\\d+\\.\\d{3}),"
+                    + "\"pid\":1,\"tid\":\\d+(,\"args\":\\{\"dependency\":-?\\d+,\"dependents\":(\\d+)\\})?\\},?");
+
+    @Test
+    public void fullBufferKeepsTheNewestEventsInOrder() {
+        final ReactorTracer tracer = new ReactorTracer(5);
+        for (int i = 0; i < 12; i++) {
+            tracer.record(ReactorTracer.INVALIDATE, i, 0);
+        }
+
+        // the capacity is rounded up to 8
+        assertEquals(8, tracer.size());
+        assertEquals(4, tracer.getDroppedCount());
+        final List<String> names = new ArrayList<String>();
+        for (String[] event : parse(tracer.toChromeTrace())) {
+            names.add(event[0]);
+        }
+        assertEquals(Arrays.asList("invalidate 4", "invalidate 5", "invalidate 6", "invalidate 7",
+                "invalidate 8", "invalidate 9", "invalidate 10", "invalidate 11"), names);
+
+        tracer.clear();
+        assertEquals(0, tracer.size());
+        assertEquals(0, tracer.getDroppedCount());
+        assertEquals("{\"traceEvents\":[\n]}\n", tracer.toChromeTrace());
+    }
+
+    @Test
+    public void flushExportsAsNestedDurationEvents() {
+        final ReactorTracer tracer = new ReactorTracer();
+        final ReactorIntVar source = new ReactorIntVar(0);
+        final ReactorComputation computation = mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                source.getValue();
+            }
+        });
+        mReactor.setTracer(tracer);
+
+        source.setValue(1);
+        runPending();
+        mReactor.setTracer(null);
+
+        final String compute = "compute " + computation.getId();
+        final List<String[]> events = parse(tracer.toChromeTrace());
+        final List<String> phases = new ArrayList<String>();
+        double previousTimestamp = 0;
+        for (String[] event : events) {
+            phases.add(event[1] + " " + event[0]);
+            final double timestamp = Double.parseDouble(event[2]);
+            assertTrue(timestamp >= previousTimestamp);
+            previousTimestamp = timestamp;
+        }
+        assertEquals(Arrays.asList(
+                "i fan-out",
+                "i invalidate " + computation.getId(),
+                "B flush",
+                "B " + compute,
+                "E " + compute,
+                "E flush"), phases);
+        assertEquals("1", events.get(0)[3]);
+    }
+
+    /**
+     * @return name, phase, timestamp and fan-out dependents of each event, checking the format
+     */
+    private static List<String[]> parse(String trace) {
+        final String header = "{\"traceEvents\":[\n";
+        final String footer = "\n]}\n";
+        assertTrue(trace.startsWith(header));
+        assertTrue(trace.endsWith(footer));
+
+        final List<String[]> events = new ArrayList<String[]>();
+        final String body = trace.substring(header.length(), trace.length() - footer.length());
+        final String[] lines = body.split("\n");
+        for (int i = 0; i < lines.length; i++) {
+            final Matcher matcher = EVENT.matcher(lines[i]);
+            if (!matcher.matches() || lines[i].endsWith(",") == (i == lines.length - 1)) {
+                fail("malformed event " + lines[i]);
+            }
+            final String phase = matcher.group(2).substring(0, 1);
+            events.add(new String[]{matcher.group(1), phase, matcher.group(3), matcher.group(5)});
+        }
+        return events;
+    }
+}
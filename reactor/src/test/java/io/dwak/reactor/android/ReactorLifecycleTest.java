@@ -0,0 +1,186 @@
+package io.dwak.reactor.android;
+
+import android.app.Activity;
+import android.app.Application;
+import android.content.Context;
+import android.os.Binder;
+import android.os.IBinder;
+import android.view.View;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+import io.dwak.reactor.ReactorComputation;
+import io.dwak.reactor.ReactorIntVar;
+import io.dwak.reactor.ReactorScope;
+import io.dwak.reactor.ReactorTestCase;
+import io.dwak.reactor.interfaces.ReactorComputationFunction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Drives the lifecycle callbacks by hand on plain subclasses of the framework classes, which the
+ * unit test android.jar allows since it returns default values
+ */
+public class ReactorLifecycleTest extends ReactorTestCase {
+    private final ReactorIntVar mSource = new ReactorIntVar(0);
+    private final int[] mRuns = new int[1];
+
+    private ReactorScope scopeFollowingSource() {
+        final ReactorScope scope = new ReactorScope();
+        scope.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                mSource.getValue();
+                mRuns[0]++;
+            }
+        });
+        return scope;
+    }
+
+    private void change() {
+        mSource.setValue(mSource.getValue() + 1);
+        runPending();
+    }
+
+    @Test
+    public void viewPausesTheScopeWhileDetached() {
+        final ReactorScope scope = scopeFollowingSource();
+        final FakeView view = new FakeView();
+        ReactorLifecycle.bindToView(view, scope);
+        assertTrue(scope.isPaused());
+
+        change();
+        change();
+        assertEquals(1, mRuns[0]);
+
+        view.attach();
+        runPending();
+        assertEquals(2, mRuns[0]);
+
+        view.detach();
+        change();
+        assertEquals(2, mRuns[0]);
+    }
+
+    @Test
+    public void attachedViewLeavesTheScopeRunning() {
+        final ReactorScope scope = scopeFollowingSource();
+        final FakeView view = new FakeView();
+        view.attach();
+        ReactorLifecycle.bindToView(view, scope);
+
+        assertFalse(scope.isPaused());
+        change();
+        assertEquals(2, mRuns[0]);
+    }
+
+    @Test
+    public void activityPausesWhileStoppedAndStopsTheScopeWhenDestroyed() {
+        final ReactorScope scope = scopeFollowingSource();
+        final FakeApplication application = new FakeApplication();
+        final FakeActivity activity = new FakeActivity(application);
+        final FakeActivity other = new FakeActivity(application);
+        ReactorLifecycle.bindToActivity(activity, scope);
+
+        application.stopped(activity);
+        change();
+        assertEquals(1, mRuns[0]);
+
+        // another activity's lifecycle doesn't touch the scope
+        application.started(other);
+        application.destroyed(other);
+        assertTrue(scope.isPaused());
+        assertEquals(1, scope.getComputationCount());
+
+        application.started(activity);
+        runPending();
+        assertEquals(2, mRuns[0]);
+
+        application.destroyed(activity);
+        assertEquals(0, scope.getComputationCount());
+        assertFalse(mSource.getDependency().hasDependants());
+        assertTrue(application.mCallbacks.isEmpty());
+    }
+
+    private static final class FakeView extends View {
+        private final ArrayList<OnAttachStateChangeListener> mListeners = new ArrayList<OnAttachStateChangeListener>();
+        private IBinder mWindowToken;
+
+        FakeView() {
+            super((Context) null);
+        }
+
+        @Override
+        public IBinder getWindowToken() {
+            return mWindowToken;
+        }
+
+        @Override
+        public void addOnAttachStateChangeListener(OnAttachStateChangeListener listener) {
+            mListeners.add(listener);
+        }
+
+        void attach() {
+            mWindowToken = new Binder();
+            for (int i = 0; i < mListeners.size(); i++) {
+                mListeners.get(i).onViewAttachedToWindow(this);
+            }
+        }
+
+        void detach() {
+            mWindowToken = null;
+            for (int i = 0; i < mListeners.size(); i++) {
+                mListeners.get(i).onViewDetachedFromWindow(this);
+            }
+        }
+    }
+
+    private static final class FakeApplication extends Application {
+        final ArrayList<ActivityLifecycleCallbacks> mCallbacks = new ArrayList<ActivityLifecycleCallbacks>();
+
+        @Override
+        public void registerActivityLifecycleCallbacks(ActivityLifecycleCallbacks callbacks) {
+            mCallbacks.add(callbacks);
+        }
+
+        @Override
+        public void unregisterActivityLifecycleCallbacks(ActivityLifecycleCallbacks callbacks) {
+            mCallbacks.remove(callbacks);
+        }
+
+        void started(Activity activity) {
+            for (ActivityLifecycleCallbacks callbacks : new ArrayList<ActivityLifecycleCallbacks>(mCallbacks)) {
+                callbacks.onActivityStarted(activity);
+            }
+        }
+
+        void stopped(Activity activity) {
+            for (ActivityLifecycleCallbacks callbacks : new ArrayList<ActivityLifecycleCallbacks>(mCallbacks)) {
+                callbacks.onActivityStopped(activity);
+            }
+        }
+
+        void destroyed(Activity activity) {
+            for (ActivityLifecycleCallbacks callbacks : new ArrayList<ActivityLifecycleCallbacks>(mCallbacks)) {
+                callbacks.onActivityDestroyed(activity);
+            }
+        }
+    }
+
+    private static final class FakeActivity extends Activity {
+        private final Application mApplication;
+
+        FakeActivity(Application application) {
+            mApplication = application;
+        }
+
+        @Override
+        public Application getApplication() {
+            return mApplication;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package io.dwak.reactor.collections;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import io.dwak.reactor.ReactorComputation;
+import io.dwak.reactor.ReactorEquivalences;
+import io.dwak.reactor.ReactorTestCase;
+import io.dwak.reactor.collections.ReactorListOperatorTest.Row;
+import io.dwak.reactor.interfaces.ReactorComputationFunction;
+import io.dwak.reactor.interfaces.ReactorDoubleMapper;
+import io.dwak.reactor.interfaces.ReactorMapper;
+import io.dwak.reactor.interfaces.ReactorPredicate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ReactorListAggregatorTest extends ReactorTestCase {
+    private static final ReactorPredicate<Integer> IS_EVEN = new ReactorPredicate<Integer>() {
+        @Override
+        public boolean test(Integer value) {
+            return value % 2 == 0;
+        }
+    };
+
+    private static final ReactorDoubleMapper<Integer> AS_DOUBLE = new ReactorDoubleMapper<Integer>() {
+        @Override
+        public double map(Integer value) {
+            return value;
+        }
+    };
+
+    private static final ReactorMapper<Integer, Integer> BY_LAST_DIGIT = new ReactorMapper<Integer, Integer>() {
+        @Override
+        public Integer map(Integer value) {
+            return value % 10;
+        }
+    };
+
+    private static final Comparator<Integer> NATURAL = new Comparator<Integer>() {
+        @Override
+        public int compare(Integer lhs, Integer rhs) {
+            return lhs.compareTo(rhs);
+        }
+    };
+
+    @Test
+    public void aggregatesMatchAPlainListUnderRandomChanges() {
+        final Random random = new Random(7);
+        final ReactorList<Integer> source = new ReactorList<Integer>();
+        final List<Integer> expected = new ArrayList<Integer>();
+        final ReactorAggregate<Integer> count = source.count(IS_EVEN);
+        final ReactorAggregate<Double> sum = source.sum(AS_DOUBLE);
+        final ReactorAggregate<Integer> min = source.min(NATURAL);
+        final ReactorAggregate<Integer> max = source.max(NATURAL);
+        final ReactorMap<Integer, ReactorList<Integer>> groups = source.groupBy(BY_LAST_DIGIT);
+
+        for (int step = 0; step < 5000; step++) {
+            ReactorListOperatorTest.randomChange(random, source, expected);
+
+            int expectedCount = 0;
+            double expectedSum = 0;
+            final Map<Integer, List<Integer>> expectedGroups = new HashMap<Integer, List<Integer>>();
+            for (Integer value : expected) {
+                if (IS_EVEN.test(value)) {
+                    expectedCount++;
+                }
+                expectedSum += value;
+                List<Integer> group = expectedGroups.get(BY_LAST_DIGIT.map(value));
+                if (group == null) {
+                    group = new ArrayList<Integer>();
+                    expectedGroups.put(BY_LAST_DIGIT.map(value), group);
+                }
+                group.add(value);
+            }
+
+            assertEquals(expectedCount, (int) count.getRawValue());
+            assertEquals(expectedSum, sum.getRawValue(), 0);
+            assertEquals(expected.isEmpty() ? null : Collections.min(expected), min.getRawValue());
+            assertEquals(expected.isEmpty() ? null : Collections.max(expected), max.getRawValue());
+
+            final Map<Integer, List<Integer>> actualGroups = new HashMap<Integer, List<Integer>>();
+            for (Integer key : groups.asMap().keySet()) {
+                actualGroups.put(key, ReactorListOperatorTest.rawContents(groups.getRaw(key)));
+            }
+            for (List<Integer> group : expectedGroups.values()) {
+                Collections.sort(group);
+            }
+            for (List<Integer> group : actualGroups.values()) {
+                Collections.sort(group);
+            }
+            assertEquals(expectedGroups, actualGroups);
+        }
+    }
+
+    @Test
+    public void readersOnlyRerunWhenTheAggregateChanges() {
+        final ReactorList<Integer> source = new ReactorList<Integer>();
+        final ReactorAggregate<Integer> count = source.count(IS_EVEN);
+        final int[] runs = new int[1];
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                count.getValue();
+                runs[0]++;
+            }
+        });
+
+        source.add(1);
+        runPending();
+        assertEquals(1, runs[0]);
+
+        source.add(2);
+        runPending();
+        assertEquals(2, runs[0]);
+    }
+
+    @Test
+    public void readingOneGroupIgnoresOthers() {
+        final ReactorList<Integer> source = new ReactorList<Integer>();
+        source.add(1);
+        source.add(2);
+        final ReactorMap<Integer, ReactorList<Integer>> groups = source.groupBy(BY_LAST_DIGIT);
+        final int[] runs = new int[1];
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                groups.get(1).size();
+                runs[0]++;
+            }
+        });
+
+        source.add(12);
+        runPending();
+        assertEquals(1, runs[0]);
+
+        source.add(11);
+        runPending();
+        assertEquals(2, runs[0]);
+    }
+
+    @Test
+    public void groupsKeepJoinOrderAcrossChanges() {
+        final ReactorList<Integer> source = new ReactorList<Integer>();
+        source.add(1);
+        source.add(11);
+        source.add(21);
+        source.add(31);
+        final ReactorMap<Integer, ReactorList<Integer>> groups = source.groupBy(BY_LAST_DIGIT);
+
+        source.remove(1);
+        assertEquals(Arrays.asList(1, 21, 31), ReactorListOperatorTest.rawContents(groups.getRaw(1)));
+
+        // same key, so the element keeps its place in the group
+        source.set(1, 41);
+        assertEquals(Arrays.asList(1, 41, 31), ReactorListOperatorTest.rawContents(groups.getRaw(1)));
+
+        // joining elements go last whatever their source index
+        source.add(0, 51);
+        source.set(2, 2);
+        assertEquals(Arrays.asList(1, 31, 51), ReactorListOperatorTest.rawContents(groups.getRaw(1)));
+        assertEquals(Arrays.asList(2), ReactorListOperatorTest.rawContents(groups.getRaw(2)));
+    }
+
+    @Test
+    public void detachedGroupByStopsFollowingTheSource() {
+        final ReactorList<Integer> source = new ReactorList<Integer>();
+        source.add(1);
+        final ReactorMap<Integer, ReactorList<Integer>> groups = source.groupBy(BY_LAST_DIGIT);
+        groups.detach();
+        source.add(11);
+        source.add(2);
+
+        assertEquals(1, groups.getRaw(1).rawSize());
+        assertNull(groups.getRaw(2));
+    }
+
+    @Test
+    public void elementsChangedInPlaceAreRemovedAsTheyWereInserted() {
+        final ReactorList<Row> source = new ReactorList<Row>(ReactorEquivalences.<Row>never());
+        final Row first = new Row(5);
+        final Row second = new Row(2);
+        final Row third = new Row(3);
+        final Row fourth = new Row(2);
+        source.addAll(Arrays.asList(first, second, third, fourth));
+        final ReactorAggregate<Integer> count = source.count(new ReactorPredicate<Row>() {
+            @Override
+            public boolean test(Row row) {
+                return row.mKey % 2 == 0;
+            }
+        });
+        final ReactorAggregate<Double> sum = source.sum(new ReactorDoubleMapper<Row>() {
+            @Override
+            public double map(Row row) {
+                return row.mKey;
+            }
+        });
+        final ReactorAggregate<Row> min = source.min(Row.BY_KEY);
+        final ReactorAggregate<Row> max = source.max(Row.BY_KEY);
+        final ReactorMap<Integer, ReactorList<Row>> groups = source.groupBy(new ReactorMapper<Row, Integer>() {
+            @Override
+            public Integer map(Row row) {
+                return row.mKey % 2;
+            }
+        });
+
+        first.mKey = 4;
+        source.set(0, first);
+        assertEquals(Integer.valueOf(3), count.getRawValue());
+        assertEquals(11, sum.getRawValue(), 0);
+        assertSame(second, min.getRawValue());
+        assertSame(first, max.getRawValue());
+        ReactorListOperatorTest.assertIdentical(Arrays.asList(second, fourth, first), ReactorListOperatorTest.rawContents(groups.getRaw(0)));
+
+        // the changed element is the key of the entry it shares with an equal one
+        second.mKey = 9;
+        source.set(1, second);
+        assertEquals(Integer.valueOf(2), count.getRawValue());
+        assertEquals(18, sum.getRawValue(), 0);
+        assertSame(fourth, min.getRawValue());
+        assertSame(second, max.getRawValue());
+        ReactorListOperatorTest.assertIdentical(Arrays.asList(fourth, first), ReactorListOperatorTest.rawContents(groups.getRaw(0)));
+        ReactorListOperatorTest.assertIdentical(Arrays.asList(third, second), ReactorListOperatorTest.rawContents(groups.getRaw(1)));
+
+        source.clear();
+        assertEquals(Integer.valueOf(0), count.getRawValue());
+        assertEquals(0, sum.getRawValue(), 0);
+        assertNull(min.getRawValue());
+        assertNull(max.getRawValue());
+        assertNull(groups.getRaw(0));
+    }
+
+    @Test
+    public void emptyListHasNoExtremes() {
+        final ReactorList<Integer> source = new ReactorList<Integer>();
+        assertNull(source.min(NATURAL).getRawValue());
+        assertNull(source.max(NATURAL).getRawValue());
+    }
+}
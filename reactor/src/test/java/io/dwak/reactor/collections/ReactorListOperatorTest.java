@@ -0,0 +1,288 @@
+package io.dwak.reactor.collections;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import io.dwak.reactor.ReactorComputation;
+import io.dwak.reactor.ReactorEquivalences;
+import io.dwak.reactor.ReactorIntVar;
+import io.dwak.reactor.ReactorTestCase;
+import io.dwak.reactor.interfaces.ReactorComputationFunction;
+import io.dwak.reactor.interfaces.ReactorMapper;
+import io.dwak.reactor.interfaces.ReactorPredicate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class ReactorListOperatorTest extends ReactorTestCase {
+    private static final ReactorMapper<Integer, String> TO_STRING = new ReactorMapper<Integer, String>() {
+        @Override
+        public String map(Integer value) {
+            return "#" + value;
+        }
+    };
+
+    private static final ReactorPredicate<Integer> IS_EVEN = new ReactorPredicate<Integer>() {
+        @Override
+        public boolean test(Integer value) {
+            return value % 2 == 0;
+        }
+    };
+
+    /**
+     * Compares by the value divided by 10, so elements that compare equal must keep their order
+     */
+    private static final Comparator<Integer> BY_TENS = new Comparator<Integer>() {
+        @Override
+        public int compare(Integer lhs, Integer rhs) {
+            return (lhs / 10) - (rhs / 10);
+        }
+    };
+
+    @Test
+    public void operatorsMatchAPlainListUnderRandomChanges() {
+        final Random random = new Random(42);
+        final ReactorList<Integer> source = new ReactorList<Integer>();
+        final List<Integer> expected = new ArrayList<Integer>();
+        final ReactorList<String> mapped = source.map(TO_STRING);
+        final ReactorList<Integer> filtered = source.filter(IS_EVEN);
+        final ReactorList<Integer> sorted = source.sortBy(BY_TENS);
+        final ReactorList<Integer> distinct = source.distinct();
+        List<Integer> expectedDistinct = new ArrayList<Integer>();
+
+        for (int step = 0; step < 5000; step++) {
+            randomChange(random, source, expected);
+
+            // values keep the position they first appeared at, and new ones go last
+            final List<Integer> nextDistinct = new ArrayList<Integer>();
+            for (Integer value : expectedDistinct) {
+                if (expected.contains(value)) {
+                    nextDistinct.add(value);
+                }
+            }
+            for (Integer value : expected) {
+                if (!nextDistinct.contains(value)) {
+                    nextDistinct.add(value);
+                }
+            }
+            expectedDistinct = nextDistinct;
+
+            final List<String> expectedMapped = new ArrayList<String>();
+            final List<Integer> expectedFiltered = new ArrayList<Integer>();
+            for (Integer value : expected) {
+                expectedMapped.add(TO_STRING.map(value));
+                if (IS_EVEN.test(value)) {
+                    expectedFiltered.add(value);
+                }
+            }
+            final List<Integer> expectedSorted = new ArrayList<Integer>(expected);
+            Collections.sort(expectedSorted, BY_TENS);
+
+            assertEquals(expectedMapped, rawContents(mapped));
+            assertEquals(expectedFiltered, rawContents(filtered));
+            assertSortedPermutation(expectedSorted, rawContents(sorted));
+            assertEquals(expectedDistinct, rawContents(distinct));
+        }
+    }
+
+    @Test
+    public void derivedListInvalidatesReaders() {
+        final ReactorList<Integer> source = new ReactorList<Integer>();
+        final ReactorList<Integer> filtered = source.filter(IS_EVEN);
+        final int[] sizes = new int[1];
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                sizes[0] = filtered.size();
+            }
+        });
+
+        source.add(1);
+        runPending();
+        assertEquals(0, sizes[0]);
+
+        source.add(2);
+        runPending();
+        assertEquals(1, sizes[0]);
+    }
+
+    @Test
+    public void writerDoesNotDependOnWhatMappersRead() {
+        final ReactorIntVar offset = new ReactorIntVar(0);
+        final ReactorList<Integer> source = new ReactorList<Integer>();
+        source.map(new ReactorMapper<Integer, Integer>() {
+            @Override
+            public Integer map(Integer value) {
+                return value + offset.getValue();
+            }
+        });
+        source.filter(new ReactorPredicate<Integer>() {
+            @Override
+            public boolean test(Integer value) {
+                return value > offset.getValue();
+            }
+        });
+        final int[] runs = new int[1];
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                runs[0]++;
+                source.add(runs[0]);
+            }
+        });
+
+        offset.setValue(1);
+        runPending();
+        assertEquals(1, runs[0]);
+        assertEquals(1, source.rawSize());
+    }
+
+    @Test
+    public void detachedListKeepsItsContents() {
+        final ReactorList<Integer> source = new ReactorList<Integer>();
+        source.add(2);
+        final ReactorList<Integer> filtered = source.filter(IS_EVEN);
+        filtered.detach();
+        source.add(4);
+
+        assertEquals(1, filtered.rawSize());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void derivedListIsReadOnly() {
+        final ReactorList<Integer> source = new ReactorList<Integer>();
+        source.map(TO_STRING).add("#1");
+    }
+
+    @Test
+    public void elementsChangedInPlaceAreRemovedFromWhereTheyWereInserted() {
+        final ReactorList<Row> source = new ReactorList<Row>(ReactorEquivalences.<Row>never());
+        final Row first = new Row(5);
+        final Row second = new Row(2);
+        final Row third = new Row(3);
+        source.add(first);
+        source.add(second);
+        source.add(third);
+        final ReactorList<Row> sorted = source.sortBy(Row.BY_KEY);
+        final ReactorList<Row> distinct = source.distinct();
+
+        first.mKey = 1;
+        source.set(0, first);
+        assertIdentical(Arrays.asList(first, second, third), rawContents(sorted));
+        assertIdentical(Arrays.asList(second, third, first), rawContents(distinct));
+
+        second.mKey = 3;
+        source.set(1, second);
+        source.remove(2);
+        assertIdentical(Arrays.asList(first, second), rawContents(sorted));
+        // the second row now equals the third, which stays as the value that appeared first
+        assertIdentical(Arrays.asList(third, first), rawContents(distinct));
+
+        source.clear();
+        assertEquals(0, sorted.rawSize());
+        assertEquals(0, distinct.rawSize());
+    }
+
+    static void randomChange(Random random, ReactorList<Integer> source, List<Integer> expected) {
+        final int size = expected.size();
+        final int operation = random.nextInt(10);
+        final Integer value = random.nextInt(60);
+        if (size == 0 || operation < 4) {
+            final int index = random.nextInt(size + 1);
+            source.add(index, value);
+            expected.add(index, value);
+        }
+        else if (operation < 7) {
+            final int index = random.nextInt(size);
+            source.remove(index);
+            expected.remove(index);
+        }
+        else if (operation < 9) {
+            final int index = random.nextInt(size);
+            source.set(index, value);
+            expected.set(index, value);
+        }
+        else if (random.nextInt(20) == 0) {
+            source.clear();
+            expected.clear();
+        }
+    }
+
+    static <E> List<E> rawContents(ReactorList<E> list) {
+        final List<E> contents = new ArrayList<E>();
+        for (int i = 0; i < list.rawSize(); i++) {
+            contents.add(list.getRaw(i));
+        }
+        return contents;
+    }
+
+    static <E> void assertIdentical(List<E> expected, List<E> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSame(expected.get(i), actual.get(i));
+        }
+    }
+
+    /**
+     * Elements that compare equal may be in any order that is stable for each element, so only
+     * the order of the keys and the multiset of each run are checked
+     */
+    private static void assertSortedPermutation(List<Integer> expected, List<Integer> actual) {
+        assertEquals(expected.size(), actual.size());
+        int start = 0;
+        while (start < expected.size()) {
+            int end = start;
+            while (end < expected.size() && BY_TENS.compare(expected.get(start), expected.get(end)) == 0) {
+                end++;
+            }
+            final List<Integer> expectedRun = new ArrayList<Integer>(expected.subList(start, end));
+            final List<Integer> actualRun = new ArrayList<Integer>(actual.subList(start, end));
+            Collections.sort(expectedRun);
+            Collections.sort(actualRun);
+            if (!expectedRun.equals(actualRun)) {
+                fail("expected " + expected + " but was " + actual);
+            }
+            start = end;
+        }
+    }
+
+    /**
+     * Mutable element whose equality and order follow its key
+     */
+    static final class Row {
+        static final Comparator<Row> BY_KEY = new Comparator<Row>() {
+            @Override
+            public int compare(Row lhs, Row rhs) {
+                return lhs.mKey - rhs.mKey;
+            }
+        };
+
+        int mKey;
+
+        Row(int key) {
+            mKey = key;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Row && ((Row) other).mKey == mKey;
+        }
+
+        @Override
+        public int hashCode() {
+            return mKey;
+        }
+
+        @Override
+        public String toString() {
+            return "Row" + mKey;
+        }
+    }
+}
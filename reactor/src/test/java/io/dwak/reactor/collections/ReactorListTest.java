@@ -0,0 +1,83 @@
+package io.dwak.reactor.collections;
+
+import org.junit.Test;
+
+import io.dwak.reactor.ReactorComputation;
+import io.dwak.reactor.ReactorTestCase;
+import io.dwak.reactor.interfaces.ReactorComputationFunction;
+
+import static org.junit.Assert.assertEquals;
+
+public class ReactorListTest extends ReactorTestCase {
+    @Test
+    public void readingAnIndexOnlyDependsOnThatIndex() {
+        final ReactorList<Integer> list = new ReactorList<Integer>();
+        list.add(1);
+        list.add(2);
+        final int[] runs = new int[1];
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                list.get(0);
+                runs[0]++;
+            }
+        });
+
+        list.set(1, 3);
+        runPending();
+        assertEquals(1, runs[0]);
+
+        list.set(0, 4);
+        runPending();
+        assertEquals(2, runs[0]);
+    }
+
+    @Test
+    public void unreadIndexesDropTheirDependencies() {
+        final ReactorList<Integer> list = new ReactorList<Integer>();
+        for (int i = 0; i < 100; i++) {
+            list.add(i);
+        }
+        final ReactorComputation reader = mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                for (int i = 0; i < list.rawSize(); i++) {
+                    list.get(i);
+                }
+            }
+        });
+        assertEquals(100, list.getIndexDependencyCount());
+
+        reader.stop();
+        for (int i = 0; i < 100; i++) {
+            list.set(i, -i - 1);
+        }
+        assertEquals(0, list.getIndexDependencyCount());
+    }
+
+    @Test
+    public void shiftedIndexesKeepOnlyLiveDependencies() {
+        final ReactorList<Integer> list = new ReactorList<Integer>();
+        for (int i = 0; i < 10; i++) {
+            list.add(i);
+        }
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                list.get(8);
+            }
+        });
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                list.get(0);
+            }
+        });
+
+        // the reader of index 8 is invalidated and hasn't rerun yet, the one of index 0 is untouched
+        list.remove(5);
+        assertEquals(1, list.getIndexDependencyCount());
+        runPending();
+        assertEquals(2, list.getIndexDependencyCount());
+    }
+}
@@ -0,0 +1,110 @@
+package io.dwak.reactor.collections;
+
+import org.junit.Test;
+
+import io.dwak.reactor.ReactorComputation;
+import io.dwak.reactor.ReactorTestCase;
+import io.dwak.reactor.interfaces.ReactorComputationFunction;
+
+import static org.junit.Assert.assertEquals;
+
+public class ReactorMapTest extends ReactorTestCase {
+    @Test
+    public void writingAKeyOnlyInvalidatesReadersOfThatKey() {
+        final ReactorMap<String, Integer> map = new ReactorMap<String, Integer>();
+        map.put("a", 1);
+        map.put("b", 2);
+        final int[] runs = new int[2];
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                map.get("a");
+                runs[0]++;
+            }
+        });
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                map.size();
+                runs[1]++;
+            }
+        });
+
+        map.put("b", 3);
+        runPending();
+        assertEquals(1, runs[0]);
+        assertEquals(1, runs[1]);
+
+        map.put("a", 4);
+        runPending();
+        assertEquals(2, runs[0]);
+        assertEquals(1, runs[1]);
+
+        // an equal value changes nothing
+        map.put("a", 4);
+        runPending();
+        assertEquals(2, runs[0]);
+    }
+
+    @Test
+    public void readerOfAMissingKeyRerunsWhenItIsAdded() {
+        final ReactorMap<String, Integer> map = new ReactorMap<String, Integer>();
+        map.put("other", 0);
+        final Integer[] seen = new Integer[1];
+        final int[] runs = new int[1];
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                seen[0] = map.containsKey("a") ? map.get("a") : -1;
+                runs[0]++;
+            }
+        });
+        assertEquals(-1, (int) seen[0]);
+
+        map.put("a", 1);
+        runPending();
+        assertEquals(1, (int) seen[0]);
+
+        map.remove("a");
+        runPending();
+        assertEquals(-1, (int) seen[0]);
+
+        // clearing keeps the dependency of the missing key, so adding it again is still seen
+        map.clear();
+        runPending();
+        final int runsAfterClear = runs[0];
+        map.put("a", 2);
+        runPending();
+        assertEquals(2, (int) seen[0]);
+        assertEquals(runsAfterClear + 1, runs[0]);
+    }
+
+    @Test
+    public void keyDependenciesArePrunedAfterTheLastReader() {
+        final ReactorMap<Integer, Integer> map = new ReactorMap<Integer, Integer>();
+        map.put(0, 0);
+        final ReactorComputation reader = mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                for (int i = 0; i < 100; i++) {
+                    map.get(i);
+                }
+            }
+        });
+        assertEquals(100, map.getKeyDependencyCount());
+
+        reader.stop();
+        // the present key drops its dependency when it changes
+        map.put(0, 1);
+        assertEquals(99, map.getKeyDependencyCount());
+
+        // the missing ones are dropped once a new key is read and they clearly outnumber the entries
+        mReactor.autoRun(new ReactorComputationFunction() {
+            @Override
+            public void react(ReactorComputation reactorComputation) {
+                map.get(1000);
+            }
+        });
+        assertEquals(1, map.getKeyDependencyCount());
+    }
+}
@@ -0,0 +1,46 @@
+package io.dwak.reactor.collections;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class ReactorPrefixCountsTest {
+    @Test
+    public void countsMatchAPlainListUnderRandomChanges() {
+        final Random random = new Random(7);
+        final ReactorPrefixCounts counts = new ReactorPrefixCounts();
+        final List<Boolean> expected = new ArrayList<Boolean>();
+
+        for (int step = 0; step < 5000; step++) {
+            final int size = expected.size();
+            final int operation = random.nextInt(10);
+            final boolean flag = random.nextBoolean();
+            if (size == 0 || operation < 5) {
+                final int index = random.nextInt(size + 1);
+                counts.insert(index, flag);
+                expected.add(index, flag);
+            }
+            else if (operation < 8) {
+                final int index = random.nextInt(size);
+                assertEquals(expected.remove(index), counts.remove(index));
+            }
+            else {
+                final int index = random.nextInt(size);
+                assertEquals(expected.set(index, flag), counts.set(index, flag));
+            }
+
+            assertEquals(expected.size(), counts.size());
+            int count = 0;
+            for (int i = 0; i <= expected.size(); i++) {
+                assertEquals(count, counts.countBefore(i));
+                if (i < expected.size() && expected.get(i)) {
+                    count++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package io.dwak.reactor.scheduler;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+
+public class ExecutorReactorSchedulerTest {
+    /**
+     * Holds on to submitted work until it's run by hand
+     */
+    private static final class QueueExecutor implements Executor {
+        final List<Runnable> mQueue = new ArrayList<Runnable>();
+
+        @Override
+        public void execute(Runnable runnable) {
+            mQueue.add(runnable);
+        }
+
+        void runAll() {
+            for (int i = 0; i < mQueue.size(); i++) {
+                mQueue.get(i).run();
+            }
+            mQueue.clear();
+        }
+    }
+
+    private static final class CountingRunnable implements Runnable {
+        int mRuns;
+
+        @Override
+        public void run() {
+            mRuns++;
+        }
+    }
+
+    @Test
+    public void cancelledImmediateWorkDoesNotRun() {
+        final QueueExecutor executor = new QueueExecutor();
+        final ExecutorReactorScheduler scheduler = new ExecutorReactorScheduler(executor);
+        final CountingRunnable runnable = new CountingRunnable();
+
+        scheduler.schedule(runnable);
+        scheduler.schedule(runnable);
+        scheduler.cancel(runnable);
+        executor.runAll();
+
+        assertEquals(0, runnable.mRuns);
+    }
+
+    @Test
+    public void workScheduledAfterACancelStillRuns() {
+        final QueueExecutor executor = new QueueExecutor();
+        final ExecutorReactorScheduler scheduler = new ExecutorReactorScheduler(executor);
+        final CountingRunnable runnable = new CountingRunnable();
+
+        scheduler.schedule(runnable);
+        scheduler.cancel(runnable);
+        scheduler.schedule(runnable);
+        executor.runAll();
+
+        assertEquals(1, runnable.mRuns);
+    }
+}